@@ -1,9 +1,23 @@
 package example;
 
+import example.batch.BatchCoordinator;
+import example.batch.BatchWorker;
 import example.service.CheckoutService;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 public class RentalAgreementApplication {
-    public static void main(String[] args) {
-        new CheckoutService().checkout(args);
+    public static final String BATCH_MODE = "--batch";
+    public static final String WORKER_MODE = "--worker";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && BATCH_MODE.equals(args[0])) {
+            BatchCoordinator.main(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && WORKER_MODE.equals(args[0])) {
+            BatchWorker.main(Arrays.copyOfRange(args, 1, args.length));
+        } else {
+            new CheckoutService().checkout(args);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,320 @@
+package example.batch;
+
+import example.RentalAgreementApplication;
+import example.service.AsyncReceiptWriter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The BatchCoordinator prices a large set of checkout requests by splitting it into shards and
+ * streaming each shard to a separate {@link BatchWorker} process over a loopback socket.
+ *
+ * Requests are assigned to shards with a {@link ShardPartitioner}, so every request for a given tool
+ * code is priced by the same worker. Results are merged back into input order, which makes the
+ * output independent of worker count and scheduling. While a batch runs, the coordinator reports
+ * overall progress and, once it completes, the throughput of each shard.
+ *
+ * The coordinator either launches its own local worker processes, which it stops again when it is
+ * closed, or attaches to workers that are already running. Launched workers are tied to the
+ * coordinator through their standard input, which the coordinator holds open; when the coordinator
+ * closes it, or its process dies, the workers exit.
+ */
+public class BatchCoordinator implements Closeable {
+    private static final long PROGRESS_INTERVAL_MILLIS = 1000L;
+
+    private final List<InetSocketAddress> workerAddresses;
+    private final List<Process> launchedWorkers;
+    private final PrintStream progress;
+
+    private BatchCoordinator(List<InetSocketAddress> workerAddresses, List<Process> launchedWorkers, PrintStream progress) {
+        this.workerAddresses = workerAddresses;
+        this.launchedWorkers = launchedWorkers;
+        this.progress = progress;
+    }
+
+    /**
+     * Creates a coordinator that attaches to workers which are already listening.
+     *
+     * @param workerAddresses the addresses of the workers; one shard is assigned to each
+     * @param progress where progress and throughput reports are written
+     */
+    public static BatchCoordinator attach(List<InetSocketAddress> workerAddresses, PrintStream progress) {
+        if (workerAddresses.isEmpty()) {
+            throw new IllegalArgumentException("At least one worker address is required");
+        }
+        return new BatchCoordinator(List.copyOf(workerAddresses), List.of(), progress);
+    }
+
+    /**
+     * Creates a coordinator that launches the given number of local worker processes, using the
+     * same java executable and class path as the current JVM.
+     *
+     * @param workerCount the number of worker processes, and therefore shards
+     * @param progress where progress and throughput reports are written
+     * @throws IOException if a worker cannot be launched or does not report its port
+     */
+    public static BatchCoordinator launch(int workerCount, PrintStream progress) throws IOException {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("The worker count must be 1 or greater");
+        }
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>();
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                Process process = new ProcessBuilder(java,
+                        "-cp", System.getProperty("java.class.path"),
+                        RentalAgreementApplication.class.getName(),
+                        RentalAgreementApplication.WORKER_MODE, "0", BatchWorker.EXIT_ON_STDIN_CLOSE)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                processes.add(process);
+            }
+            for (Process process : processes) {
+                addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), awaitWorkerPort(process)));
+            }
+        } catch (IOException | RuntimeException e) {
+            processes.forEach(Process::destroy);
+            throw e;
+        }
+        return new BatchCoordinator(addresses, processes, progress);
+    }
+
+    public int getShardCount() {
+        return workerAddresses.size();
+    }
+
+    /**
+     * Prices every request line and returns the results in the same order as the input.
+     *
+     * @param requestLines requests in the form {@code <tool code> <rental day count> <discount percent> <check out date>}
+     * @return one result per request line, in input order
+     * @throws IOException if a worker connection fails
+     */
+    public List<BatchResult> price(List<String> requestLines) throws IOException {
+        ShardPartitioner partitioner = new ShardPartitioner(getShardCount());
+        List<List<Integer>> shards = new ArrayList<>();
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            shards.add(new ArrayList<>());
+        }
+        for (int index = 0; index < requestLines.size(); index++) {
+            shards.get(partitioner.shardFor(requestLines.get(index))).add(index);
+        }
+
+        BatchResult[] results = new BatchResult[requestLines.size()];
+        AtomicInteger completed = new AtomicInteger();
+        long[] shardNanos = new long[getShardCount()];
+
+        // each shard needs a sender and a receiver thread, plus one thread for progress reports
+        ExecutorService executor = Executors.newFixedThreadPool(2 * getShardCount() + 1);
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            List<Future<?>> receivers = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int shard = 0; shard < getShardCount(); shard++) {
+                Socket socket = new Socket(workerAddresses.get(shard).getAddress(), workerAddresses.get(shard).getPort());
+                sockets.add(socket);
+                List<Integer> shardIndexes = shards.get(shard);
+                int shardNumber = shard;
+                executor.submit(() -> sendShard(socket, shardIndexes, requestLines));
+                receivers.add(executor.submit(() -> {
+                    receiveShard(socket, shardNumber, shardIndexes.size(), results, completed);
+                    shardNanos[shardNumber] = System.nanoTime() - start;
+                    return null;
+                }));
+            }
+            Future<?> reporter = executor.submit(() -> reportProgress(completed, requestLines.size()));
+
+            try {
+                for (Future<?> receiver : receivers) {
+                    receiver.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for batch workers", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Batch shard failed: " + e.getCause(), e.getCause());
+            } finally {
+                reporter.cancel(true);
+            }
+
+            long elapsedNanos = System.nanoTime() - start;
+            progress.printf("priced %d requests in %d ms (%.0f receipts/s)%n",
+                    requestLines.size(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), perSecond(requestLines.size(), elapsedNanos));
+            for (int shard = 0; shard < getShardCount(); shard++) {
+                progress.printf("shard %d (%s): %d receipts in %d ms (%.0f receipts/s)%n",
+                        shard, workerAddresses.get(shard), shards.get(shard).size(),
+                        TimeUnit.NANOSECONDS.toMillis(shardNanos[shard]), perSecond(shards.get(shard).size(), shardNanos[shard]));
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            executor.shutdownNow();
+        }
+
+        return List.of(results);
+    }
+
+    /**
+     * Stops any worker processes launched by this coordinator by closing their standard input, and
+     * destroys those that do not exit in time. Attached workers are left running.
+     */
+    @Override
+    public void close() {
+        for (Process process : launchedWorkers) {
+            try {
+                process.getOutputStream().close();
+            } catch (IOException e) {
+                process.destroy();
+            }
+        }
+        for (Process process : launchedWorkers) {
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private Void sendShard(Socket socket, List<Integer> shardIndexes, List<String> requestLines) throws IOException {
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            for (int index : shardIndexes) {
+                out.writeInt(index);
+                out.writeUTF(requestLines.get(index));
+            }
+            out.writeInt(BatchWorker.END_OF_SHARD);
+            out.flush();
+        } catch (IOException e) {
+            // closing the socket unblocks the receiver, which then reports the failed shard
+            socket.close();
+            throw e;
+        }
+        return null;
+    }
+
+    private void receiveShard(Socket socket, int shard, int expected, BatchResult[] results, AtomicInteger completed) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        int received = 0;
+        while (true) {
+            int index = in.readInt();
+            if (index == BatchWorker.END_OF_SHARD) {
+                break;
+            }
+            boolean successful = in.readBoolean();
+            String text = in.readUTF();
+            results[index] = new BatchResult(index, shard, successful, text);
+            received++;
+            completed.incrementAndGet();
+        }
+        if (received != expected) {
+            throw new IOException("Shard " + shard + " returned " + received + " results but " + expected + " were sent");
+        }
+    }
+
+    private void reportProgress(AtomicInteger completed, int total) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(PROGRESS_INTERVAL_MILLIS);
+                progress.printf("priced %d of %d requests%n", completed.get(), total);
+            }
+        } catch (InterruptedException e) {
+            // the batch finished
+        }
+    }
+
+    private static double perSecond(int count, long nanos) {
+        return nanos == 0 ? 0.0 : count * 1_000_000_000.0 / nanos;
+    }
+
+    private static int awaitWorkerPort(Process process) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line = reader.readLine();
+        if (line == null || !line.startsWith(BatchWorker.READY_MESSAGE)) {
+            throw new IOException("Batch worker did not start: " + line);
+        }
+        return Integer.parseInt(line.substring(BatchWorker.READY_MESSAGE.length()).trim());
+    }
+
+    /**
+     * Runs a batch from the command line and prints the merged receipts on standard output, in
+     * input order and separated by blank lines. Progress is reported on standard error.
+     *
+     * @param args args[0] - the number of local workers to launch, or a comma-separated list of
+     *                       {@code host:port} addresses of running workers;
+     *             args[1] - a file with one request per line; blank lines are ignored, and requests
+     *                       that fail are reported with their line number in the file
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("required arguments: <worker count | host:port,...> <request file>");
+            return;
+        }
+        List<String> fileLines = Files.readAllLines(new File(args[1]).toPath());
+        List<String> requestLines = new ArrayList<>();
+        // the file's own 1-based line number of each request, so errors point at the right line
+        List<Integer> lineNumbers = new ArrayList<>();
+        for (int i = 0; i < fileLines.size(); i++) {
+            if (!fileLines.get(i).isBlank()) {
+                requestLines.add(fileLines.get(i));
+                lineNumbers.add(i + 1);
+            }
+        }
+
+        try (BatchCoordinator coordinator = args[0].contains(":")
+                ? attach(parseAddresses(args[0]), System.err)
+                : launch(Integer.parseInt(args[0]), System.err)) {
+            List<BatchResult> results = coordinator.price(requestLines);
+            AsyncReceiptWriter receiptWriter = AsyncReceiptWriter.toStandardOutput(AsyncReceiptWriter.BackPressurePolicy.BLOCK);
+            try (receiptWriter) {
+                for (BatchResult result : results) {
+                    String separator = result.getIndex() > 0 ? System.lineSeparator() : "";
+                    if (result.isSuccessful()) {
+                        receiptWriter.submit(separator + result.getText());
+                    } else {
+                        receiptWriter.submit(separator + "Line " + lineNumbers.get(result.getIndex()) + " ("
+                                + requestLines.get(result.getIndex()) + "): " + result.getText() + System.lineSeparator());
+                    }
+                }
+            }
+            System.err.println("receipt output: " + receiptWriter.getMetrics());
+        }
+    }
+
+    private static List<InetSocketAddress> parseAddresses(String addresses) {
+        List<InetSocketAddress> result = new ArrayList<>();
+        for (String address : addresses.split(",")) {
+            int separator = address.lastIndexOf(':');
+            result.add(new InetSocketAddress(address.substring(0, separator), Integer.parseInt(address.substring(separator + 1))));
+        }
+        return result;
+    }
+}
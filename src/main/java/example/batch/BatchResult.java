@@ -0,0 +1,22 @@
+package example.batch;
+
+import lombok.Getter;
+
+/**
+ * The outcome of pricing a single batch request line. A successful result carries the rendered
+ * receipt; a failed result carries the validation message that the CLI would have printed.
+ */
+@Getter
+public class BatchResult {
+    private final int index;
+    private final int shard;
+    private final boolean successful;
+    private final String text;
+
+    public BatchResult(int index, int shard, boolean successful, String text) {
+        this.index = index;
+        this.shard = shard;
+        this.successful = successful;
+        this.text = text;
+    }
+}
@@ -0,0 +1,176 @@
+package example.batch;
+
+import example.domain.RentalAgreement;
+import example.service.CheckoutService;
+import example.service.ReceiptPrinterService;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The BatchWorker prices the requests of one or more shards on behalf of a {@link BatchCoordinator}.
+ * It listens on a loopback socket and serves every connection on its own thread, so several
+ * coordinators (or several shards) may attach to the same worker.
+ *
+ * The wire protocol is a stream of frames written with {@link DataOutputStream}:
+ * - request: {@code int index, UTF request line}; an index of {@link #END_OF_SHARD} ends the shard
+ * - response: {@code int index, boolean successful, UTF receipt or error message}
+ *
+ * Responses are written in the order the requests arrive. They are flushed whenever the worker has
+ * caught up with its input, which keeps the socket busy in both directions while a shard streams.
+ */
+public class BatchWorker implements Closeable {
+    public static final String READY_MESSAGE = "Batch worker listening on port ";
+    public static final String EXIT_ON_STDIN_CLOSE = "--exit-on-stdin-close";
+    static final int END_OF_SHARD = -1;
+
+    private final CheckoutService checkoutService = new CheckoutService();
+    private final ReceiptPrinterService receiptPrinterService = new ReceiptPrinterService();
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "batch-worker-connection");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Opens the worker's listening socket on the loopback interface.
+     *
+     * @param port the port to listen on, or 0 to let the operating system pick a free port
+     * @throws IOException if the socket cannot be opened
+     */
+    public BatchWorker(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the worker is closed. Each connection is served on its own thread.
+     */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serveConnection(socket));
+            } catch (SocketException e) {
+                // the server socket was closed; stop accepting connections
+            } catch (IOException e) {
+                System.err.println("Batch worker failed to accept a connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Starts serving on a background daemon thread, which is convenient for running several workers
+     * inside a single JVM.
+     */
+    public void start() {
+        Thread thread = new Thread(this::serve, "batch-worker-" + getPort());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void serveConnection(Socket socket) {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                int index = in.readInt();
+                if (index == END_OF_SHARD) {
+                    out.writeInt(END_OF_SHARD);
+                    out.flush();
+                    return;
+                }
+                String requestLine = in.readUTF();
+
+                // price the request completely before writing any of its frame, so that a request that
+                // fails part way through still gets a whole response and the shard carries on
+                boolean successful;
+                String text;
+                try {
+                    RentalAgreement rentalAgreement = checkoutService.createRentalAgreement(requestLine.trim().split("\\s+"));
+                    text = receiptPrinterService.renderReceipt(rentalAgreement);
+                    successful = true;
+                } catch (IllegalArgumentException e) {
+                    text = e.getMessage();
+                    successful = false;
+                } catch (RuntimeException e) {
+                    text = "The request could not be priced: " + e;
+                    successful = false;
+                }
+                out.writeInt(index);
+                out.writeBoolean(successful);
+                out.writeUTF(text);
+
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (EOFException e) {
+            // the coordinator went away without ending the shard; nothing left to answer
+        } catch (IOException e) {
+            System.err.println("Batch worker connection failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a standalone worker process. The ready message, including the port actually bound,
+     * is printed on standard output so that a launching coordinator can attach to it.
+     *
+     * A coordinator that launches the worker keeps the worker's standard input open for as long as
+     * it runs. With {@link #EXIT_ON_STDIN_CLOSE} the worker stops once its standard input is closed,
+     * so it does not outlive a coordinator that was killed before it could close its workers.
+     *
+     * @param args args[0] - the port to listen on, or 0 for any free port;
+     *             args[1] - optionally {@link #EXIT_ON_STDIN_CLOSE}
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        boolean exitOnStdinClose = args.length > 1 && EXIT_ON_STDIN_CLOSE.equals(args[1]);
+        try (BatchWorker worker = new BatchWorker(port)) {
+            if (exitOnStdinClose) {
+                Thread watcher = new Thread(() -> awaitEndOfInput(worker), "batch-worker-stdin");
+                watcher.setDaemon(true);
+                watcher.start();
+            }
+            System.out.println(READY_MESSAGE + worker.getPort());
+            System.out.flush();
+            worker.serve();
+        }
+    }
+
+    private static void awaitEndOfInput(BatchWorker worker) {
+        try {
+            while (System.in.read() != -1) {
+                // the coordinator sends nothing; only the end of input matters
+            }
+        } catch (IOException e) {
+            // a broken pipe means the coordinator is gone as well
+        }
+        try {
+            worker.close();
+        } catch (IOException e) {
+            System.err.println("Batch worker failed to stop: " + e.getMessage());
+        }
+    }
+}
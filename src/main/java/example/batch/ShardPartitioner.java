@@ -0,0 +1,53 @@
+package example.batch;
+
+/**
+ * Assigns batch pricing requests to shards by hashing the tool code.
+ *
+ * {@link String#hashCode()} is fully specified by the language, so a given tool code maps to the
+ * same shard in every JVM. That keeps shard assignment reproducible between runs and between the
+ * coordinator and any workers it attaches to.
+ *
+ * The hash is scrambled with a Fibonacci multiplier before it is reduced to a shard index, because
+ * short codes such as {@code JAKD} and {@code JAKR} differ only in their low bits and would otherwise
+ * tend to pile up on the same shard.
+ */
+public class ShardPartitioner {
+    private static final int FIBONACCI_MULTIPLIER = 0x9E3779B9;
+
+    private final int shardCount;
+
+    public ShardPartitioner(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("The shard count must be 1 or greater");
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Determines the shard that prices the given request line.
+     *
+     * @param requestLine a request in the form {@code <tool code> <rental day count> <discount percent> <check out date>}
+     * @return the shard index, between 0 (inclusive) and the shard count (exclusive)
+     */
+    public int shardFor(String requestLine) {
+        return shardForToolCode(toolCode(requestLine));
+    }
+
+    public int shardForToolCode(String toolCode) {
+        int scrambled = (toolCode.hashCode() * FIBONACCI_MULTIPLIER) >>> 16;
+        return scrambled % shardCount;
+    }
+
+    private static String toolCode(String requestLine) {
+        String trimmed = requestLine.trim();
+        int end = 0;
+        while (end < trimmed.length() && !Character.isWhitespace(trimmed.charAt(end))) {
+            end++;
+        }
+        return trimmed.substring(0, end);
+    }
+}
@@ -0,0 +1,54 @@
+package example.domain;
+
+import lombok.Getter;
+
+/**
+ * The OutstandingRental class represents a rental agreement whose tool has not been returned yet,
+ * together with the running totals of late fees accrued since its due date.
+ *
+ * The totals are stored so that the nightly accrual only needs to add the days since it last ran,
+ * instead of repricing the agreement from its checkout date. {@code accruedThroughEpochDay} is the
+ * last day included in the totals; it starts at the due date, when nothing is late yet.
+ */
+@Getter
+public class OutstandingRental {
+    private final long id;
+    private final RentalAgreement rentalAgreement;
+    private int accruedThroughEpochDay;
+    private int lateChargeDays;
+    private long lateFeeCents;
+
+    public OutstandingRental(long id, RentalAgreement rentalAgreement) {
+        this.id = id;
+        this.rentalAgreement = rentalAgreement;
+        this.accruedThroughEpochDay = rentalAgreement.getDueEpochDay();
+    }
+
+    /**
+     * Adds the late charge days accrued after the current running totals, up to and including the
+     * given day.
+     *
+     * @param throughEpochDay the last day now included in the totals
+     * @param chargeDays the chargeable days between the previous and the new accrual day
+     */
+    public synchronized void recordAccrual(int throughEpochDay, int chargeDays) {
+        if (throughEpochDay <= accruedThroughEpochDay) {
+            throw new IllegalArgumentException("Late fees have already been accrued through that day");
+        }
+        accruedThroughEpochDay = throughEpochDay;
+        lateChargeDays += chargeDays;
+        lateFeeCents += (long) chargeDays * rentalAgreement.getDailyRentalChargeInCents();
+    }
+
+    public synchronized int getAccruedThroughEpochDay() {
+        return accruedThroughEpochDay;
+    }
+
+    public synchronized int getLateChargeDays() {
+        return lateChargeDays;
+    }
+
+    public synchronized long getLateFeeCents() {
+        return lateFeeCents;
+    }
+}
@@ -1,6 +1,7 @@
 package example.domain;
 
 import example.repository.ChargeRepository;
+import example.utils.EpochDayCalendar;
 import lombok.AccessLevel;
 import lombok.Getter;
 
@@ -14,12 +15,15 @@ import java.time.LocalDate;
  *
  * Each RentalAgreement is initialized with a specific tool, rental duration, checkout date, and discount
  * percentage, and determines the associated charges based on the tool type using a ChargeRepository.
+ *
+ * Dates are held as {@link EpochDayCalendar} epoch days for pricing; the {@link LocalDate} getters
+ * convert on demand for formatting and other callers at the edge of the application.
  */
 @Getter
 public class RentalAgreement {
     private final Tool tool;
     private final int rentalDays;
-    private final LocalDate checkOutDate;
+    private final int checkOutEpochDay;
     private final Charge charge;
     private final BigDecimal discountPercentage;
 
@@ -31,15 +35,34 @@ public class RentalAgreement {
                            LocalDate checkoutDate,
                            BigDecimal discountPercentage
                            ) {
+        this(tool, rentalDays, EpochDayCalendar.of(checkoutDate), discountPercentage);
+    }
+
+    public RentalAgreement(Tool tool,
+                           int rentalDays,
+                           int checkoutEpochDay,
+                           BigDecimal discountPercentage
+                           ) {
         this.tool = tool;
         this.rentalDays = rentalDays;
-        this.checkOutDate = checkoutDate;
+        this.checkOutEpochDay = checkoutEpochDay;
         this.discountPercentage = discountPercentage;
         this.charge = chargeRepository.getCharge(tool.getType());
     }
 
+    public LocalDate getCheckOutDate() {
+        return EpochDayCalendar.toLocalDate(checkOutEpochDay);
+    }
+
+    /**
+     * @throws ArithmeticException if the due date is past the last epoch day an {@code int} can hold
+     */
+    public int getDueEpochDay() {
+        return Math.addExact(checkOutEpochDay, rentalDays);
+    }
+
     public LocalDate getDueDate() {
-        return checkOutDate.plusDays(rentalDays);
+        return EpochDayCalendar.toLocalDate(getDueEpochDay());
     }
 
     public int getDailyRentalChargeInCents() {
@@ -0,0 +1,80 @@
+package example.load;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects garbage collection pauses reported by the JVM while a load test runs.
+ *
+ * Pauses are received as {@link GarbageCollectionNotificationInfo} notifications, one per
+ * collection. Concurrent collectors also report their cycles this way, so the totals are per
+ * collector name, which makes it easy to tell stop-the-world pauses from concurrent work.
+ */
+public class GcPauseMonitor implements NotificationListener, AutoCloseable {
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final Map<String, long[]> countAndTotalMillisByCollector = new TreeMap<>();
+    private long maxPauseMillis;
+
+    /**
+     * Starts listening for collections on every garbage collector of this JVM.
+     */
+    public GcPauseMonitor() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                NotificationEmitter emitter = (NotificationEmitter) collector;
+                emitter.addNotificationListener(this, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        long durationMillis = info.getGcInfo().getDuration();
+        long[] countAndTotal = countAndTotalMillisByCollector.computeIfAbsent(info.getGcName(), name -> new long[2]);
+        countAndTotal[0]++;
+        countAndTotal[1] += durationMillis;
+        maxPauseMillis = Math.max(maxPauseMillis, durationMillis);
+    }
+
+    /**
+     * @return one line per collector with its collection count and total time, followed by the
+     *         longest single collection
+     */
+    public synchronized String summary() {
+        StringBuilder summary = new StringBuilder();
+        countAndTotalMillisByCollector.forEach((name, countAndTotal) ->
+                summary.append(String.format("  %s: %d collections, %d ms total%n", name, countAndTotal[0], countAndTotal[1])));
+        if (countAndTotalMillisByCollector.isEmpty()) {
+            summary.append(String.format("  no collections%n"));
+        }
+        summary.append(String.format("  longest collection: %d ms%n", maxPauseMillis));
+        return summary.toString();
+    }
+
+    @Override
+    public void close() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (ListenerNotFoundException e) {
+                // already removed
+            }
+        }
+    }
+}
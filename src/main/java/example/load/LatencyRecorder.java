@@ -0,0 +1,47 @@
+package example.load;
+
+import java.util.Arrays;
+
+/**
+ * Records one latency per request of a load test run and summarises them as percentiles.
+ *
+ * The number of requests in an open-loop run is known up front, so latencies are stored in a
+ * preallocated array indexed by request number. Each slot is written by exactly one thread, which
+ * keeps recording free of locks and allocation while the run is measured.
+ */
+public class LatencyRecorder {
+    private final long[] latencyNanos;
+
+    public LatencyRecorder(int requestCount) {
+        this.latencyNanos = new long[requestCount];
+    }
+
+    public void record(int request, long nanos) {
+        latencyNanos[request] = nanos;
+    }
+
+    /**
+     * @return the recorded latencies in ascending order; only call this once the run has completed
+     */
+    public long[] sorted() {
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Looks up a percentile in a sorted array of latencies, using the nearest-rank method.
+     *
+     * @param sorted latencies in ascending order
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency at the given percentile
+     */
+    public static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0L;
+        }
+        // the small tolerance keeps decimal percentiles such as 99.9 from rounding up a whole rank
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length - 1e-9);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
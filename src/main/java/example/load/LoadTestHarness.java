@@ -0,0 +1,246 @@
+package example.load;
+
+import example.domain.RentalAgreement;
+import example.service.AsyncReceiptWriter;
+import example.service.CheckoutService;
+import example.service.ReceiptPrinterService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the checkout path with synthetic traffic at a fixed, open-loop arrival rate and reports
+ * latency percentiles, throughput and garbage collection activity.
+ *
+ * Each request is given an intended start time on a fixed schedule ({@code start + i / rate}),
+ * independent of how quickly earlier requests complete. Worker threads pick up requests in order,
+ * wait for the intended start time if they are early, and price the request by validating it,
+ * creating the {@link RentalAgreement} and rendering the receipt.
+ *
+ * Latency is measured from the intended start time rather than from the moment a thread actually
+ * got around to the request. When the system stalls, requests queue up behind the stall and that
+ * queueing time is counted, which corrects for coordinated omission. The uncorrected service time
+ * is reported alongside it for comparison.
+ *
+ * By default receipts are only rendered. When the harness is given an {@link AsyncReceiptWriter},
+ * each worker thread prints its receipts through a {@link ReceiptPrinterService} that hands them
+ * to the writer, so the measured latency includes the hand-off but not the output I/O.
+ */
+public class LoadTestHarness {
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 100.0};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p99.9", "max"};
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final CheckoutService checkoutService = new CheckoutService();
+    private final ReceiptPrinterService receiptPrinterService;
+    private final boolean printReceipts;
+    private final int requestsPerSecond;
+    private final int threadCount;
+    private final LongAdder checksum = new LongAdder();
+
+    public LoadTestHarness(int requestsPerSecond, int threadCount) {
+        this(requestsPerSecond, threadCount, null);
+    }
+
+    /**
+     * @param receiptWriter the writer priced receipts are printed to, or null to only render them
+     */
+    public LoadTestHarness(int requestsPerSecond, int threadCount, AsyncReceiptWriter receiptWriter) {
+        if (requestsPerSecond <= 0 || threadCount <= 0) {
+            throw new IllegalArgumentException("The request rate and thread count must be 1 or greater");
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        this.threadCount = threadCount;
+        this.receiptPrinterService = new ReceiptPrinterService(receiptWriter);
+        this.printReceipts = receiptWriter != null;
+    }
+
+    /**
+     * Runs the given requests on the open-loop schedule and blocks until all of them completed.
+     *
+     * @param requests the CLI arguments of each request, in schedule order
+     * @return the measurements of the run
+     */
+    public RunResult run(String[][] requests) throws InterruptedException {
+        LatencyRecorder corrected = new LatencyRecorder(requests.length);
+        LatencyRecorder serviceTime = new LatencyRecorder(requests.length);
+        AtomicInteger next = new AtomicInteger();
+        LongAdder failures = new LongAdder();
+        double intervalNanos = 1_000_000_000.0 / requestsPerSecond;
+        long start = System.nanoTime();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            Thread thread = new Thread(() -> {
+                int request;
+                while ((request = next.getAndIncrement()) < requests.length) {
+                    long intendedStart = start + (long) (request * intervalNanos);
+                    awaitNanoTime(intendedStart);
+
+                    long actualStart = System.nanoTime();
+                    if (!price(requests[request])) {
+                        failures.increment();
+                    }
+                    long end = System.nanoTime();
+
+                    corrected.record(request, end - intendedStart);
+                    serviceTime.record(request, end - actualStart);
+                }
+            }, "load-" + t);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        return new RunResult(requests.length, failures.intValue(), elapsedNanos, corrected.sorted(), serviceTime.sorted());
+    }
+
+    private boolean price(String[] request) {
+        try {
+            RentalAgreement rentalAgreement = checkoutService.createRentalAgreement(request);
+            if (printReceipts) {
+                receiptPrinterService.printReceipt(rentalAgreement);
+            } else {
+                // keep the rendered receipt observable so the JIT cannot discard the work
+                checksum.add(receiptPrinterService.renderReceipt(rentalAgreement).length());
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // invalid requests as well as agreements that cannot be rendered, such as a due date
+            // past the two-digit year range, count as failed requests rather than ending the thread
+            return false;
+        }
+    }
+
+    private static void awaitNanoTime(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * The measurements of a single load test run.
+     */
+    public static class RunResult {
+        private final int requests;
+        private final int failures;
+        private final long elapsedNanos;
+        private final long[] correctedLatencyNanos;
+        private final long[] serviceTimeNanos;
+
+        RunResult(int requests, int failures, long elapsedNanos, long[] correctedLatencyNanos, long[] serviceTimeNanos) {
+            this.requests = requests;
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+            this.correctedLatencyNanos = correctedLatencyNanos;
+            this.serviceTimeNanos = serviceTimeNanos;
+        }
+
+        public int getRequests() {
+            return requests;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public double getThroughputPerSecond() {
+            return requests * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        public long getCorrectedLatencyNanos(double percentile) {
+            return LatencyRecorder.percentile(correctedLatencyNanos, percentile);
+        }
+
+        public long getServiceTimeNanos(double percentile) {
+            return LatencyRecorder.percentile(serviceTimeNanos, percentile);
+        }
+
+        public String summary() {
+            StringBuilder summary = new StringBuilder();
+            summary.append(String.format("requests: %d (%d failed) in %d ms%n",
+                    requests, failures, TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+            summary.append(String.format("throughput: %.0f requests/s%n", getThroughputPerSecond()));
+            summary.append(String.format("%-10s %18s %18s%n", "percentile", "latency (us)", "service time (us)"));
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                summary.append(String.format("%-10s %18.1f %18.1f%n",
+                        PERCENTILE_LABELS[i],
+                        getCorrectedLatencyNanos(PERCENTILES[i]) / 1000.0,
+                        getServiceTimeNanos(PERCENTILES[i]) / 1000.0));
+            }
+            return summary.toString();
+        }
+    }
+
+    /**
+     * Runs a warm-up phase followed by a measured phase and prints the report.
+     *
+     * @param args args[0] - target arrival rate in requests per second (default 10000);
+     *             args[1] - measured duration in seconds (default 30);
+     *             args[2] - worker thread count (default: available processors);
+     *             args[3] - warm-up duration in seconds (default 10);
+     *             args[4] - random seed (default 1);
+     *             args[5] - file the measured receipts are printed to through an
+     *                       {@link AsyncReceiptWriter} (default: receipts are only rendered);
+     *             args[6] - back-pressure policy of that writer, BLOCK, DROP or SPILL (default BLOCK)
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int durationSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1L;
+        Path receiptFile = args.length > 5 ? Path.of(args[5]) : null;
+        AsyncReceiptWriter.BackPressurePolicy policy = args.length > 6
+                ? AsyncReceiptWriter.BackPressurePolicy.valueOf(args[6]) : AsyncReceiptWriter.BackPressurePolicy.BLOCK;
+
+        WorkloadGenerator generator = new WorkloadGenerator(seed, 15, 25);
+        String[][] warmup = generator.nextRequests(Math.multiplyExact(rate, warmupSeconds));
+        String[][] measured = generator.nextRequests(Math.multiplyExact(rate, durationSeconds));
+        LoadTestHarness harness = new LoadTestHarness(rate, threads);
+
+        System.out.printf("target rate: %d requests/s on %d threads, %d s warm-up, %d s measured%n",
+                rate, threads, warmupSeconds, durationSeconds);
+        harness.run(warmup);
+
+        RunResult result;
+        String gcSummary;
+        AsyncReceiptWriter.Metrics writerMetrics = null;
+        if (receiptFile == null) {
+            try (GcPauseMonitor gcPauseMonitor = new GcPauseMonitor()) {
+                result = harness.run(measured);
+                gcSummary = gcPauseMonitor.summary();
+            }
+        } else {
+            AsyncReceiptWriter receiptWriter = AsyncReceiptWriter.toFile(receiptFile, policy);
+            try (receiptWriter; GcPauseMonitor gcPauseMonitor = new GcPauseMonitor()) {
+                result = new LoadTestHarness(rate, threads, receiptWriter).run(measured);
+                gcSummary = gcPauseMonitor.summary();
+            }
+            writerMetrics = receiptWriter.getMetrics();
+        }
+
+        System.out.print(result.summary());
+        System.out.println("garbage collection:");
+        System.out.print(gcSummary);
+        if (writerMetrics != null) {
+            System.out.println("receipt writer: " + writerMetrics);
+        } else {
+            System.out.println("checksum: " + harness.checksum.sum());
+        }
+    }
+}
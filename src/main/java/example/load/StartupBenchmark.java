@@ -0,0 +1,111 @@
+package example.load;
+
+import example.RentalAgreementApplication;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long a one-shot CLI checkout takes from launching the JVM until the first line of
+ * the receipt appears on standard output, and until the process exits.
+ *
+ * Each launch configuration is run the given number of times, alternating between configurations
+ * so that they see the same machine conditions. The configurations are the plain class directory
+ * launch and, once {@code mvn package} has built them, the fast-start launch used by
+ * rental_agreement.sh with the packaged jar and its class-data sharing archive.
+ *
+ * Run it from the project directory, after {@code mvn package}.
+ */
+public class StartupBenchmark {
+    private static final Path CLASSES = Path.of("target", "classes");
+    private static final Path JAR = Path.of("target", "rental_agreement.jar");
+    private static final Path CDS_ARCHIVE = Path.of("target", "rental_agreement.jsa");
+    private static final String FIRST_RECEIPT_LINE = "Tool code: ";
+
+    /**
+     * @param args args[0] - the number of launches per configuration (default 20);
+     *             args[1..4] - the checkout arguments (default LADW 3 10 07/02/20)
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        List<String> checkout = args.length > 4 ? Arrays.asList(args).subList(1, 5) : List.of("LADW", "3", "10", "07/02/20");
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        List<String> names = new ArrayList<>();
+        List<List<String>> commands = new ArrayList<>();
+        names.add("class directory");
+        commands.add(command(List.of(java, "-cp", CLASSES.toString()), checkout));
+        if (Files.exists(JAR) && Files.exists(CDS_ARCHIVE)) {
+            names.add("jar + CDS archive");
+            commands.add(command(List.of(java, "-XX:SharedArchiveFile=" + CDS_ARCHIVE, "-Xshare:auto",
+                    "-XX:TieredStopAtLevel=1", "-cp", JAR.toString()), checkout));
+        } else {
+            System.out.println("no jar or CDS archive found; run mvn package to benchmark the fast-start launch");
+        }
+
+        long[][] firstReceiptNanos = new long[commands.size()][iterations];
+        long[][] exitNanos = new long[commands.size()][iterations];
+        // one untimed launch per configuration warms up the file system cache
+        for (List<String> command : commands) {
+            launch(command);
+        }
+        for (int i = 0; i < iterations; i++) {
+            for (int c = 0; c < commands.size(); c++) {
+                long[] timings = launch(commands.get(c));
+                firstReceiptNanos[c][i] = timings[0];
+                exitNanos[c][i] = timings[1];
+            }
+        }
+
+        System.out.printf("%-20s %28s %28s%n", "launch", "first receipt ms (median/min)", "exit ms (median/min)");
+        for (int c = 0; c < commands.size(); c++) {
+            Arrays.sort(firstReceiptNanos[c]);
+            Arrays.sort(exitNanos[c]);
+            System.out.printf("%-20s %19.1f / %6.1f %19.1f / %6.1f%n", names.get(c),
+                    millis(firstReceiptNanos[c][iterations / 2]), millis(firstReceiptNanos[c][0]),
+                    millis(exitNanos[c][iterations / 2]), millis(exitNanos[c][0]));
+        }
+    }
+
+    private static List<String> command(List<String> jvm, List<String> checkout) {
+        List<String> command = new ArrayList<>(jvm);
+        command.add(RentalAgreementApplication.class.getName());
+        command.addAll(checkout);
+        return command;
+    }
+
+    /**
+     * @return the nanoseconds until the first receipt line was read and until the process exited
+     */
+    private static long[] launch(List<String> command) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long firstReceipt = -1L;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (firstReceipt < 0 && line.startsWith(FIRST_RECEIPT_LINE)) {
+                    firstReceipt = System.nanoTime() - start;
+                }
+            }
+        }
+        process.waitFor();
+        long exit = System.nanoTime() - start;
+        if (firstReceipt < 0) {
+            throw new IllegalStateException("No receipt was printed by: " + String.join(" ", command));
+        }
+        return new long[]{firstReceipt, exit};
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,116 @@
+package example.load;
+
+import example.repository.ToolRepository;
+import example.utils.CalendarHelper;
+import example.utils.CheckoutDateFormat;
+import example.utils.EpochDayCalendar;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic checkout requests that resemble real rental traffic, for use by the
+ * {@link LoadTestHarness}. Each request is the same four arguments the CLI accepts.
+ *
+ * The distributions are:
+ * - Tool code: uniform over the codes in the {@link ToolRepository}.
+ * - Rental days: mostly short rentals (geometric, mean of about four days), with an occasional
+ *   long rental of one to three months.
+ * - Discount: most rentals are undiscounted; the rest use one of a few common promotional rates.
+ * - Checkout date: most rentals cluster within a week or so of a holiday from the HolidayRepository,
+ *   since holiday weeks are both the busiest and the most expensive to price; the rest are spread
+ *   evenly over the year.
+ *
+ * Generation is driven by a seed, so the same seed always produces the same workload.
+ */
+public class WorkloadGenerator {
+    private static final int[] DISCOUNTS = {5, 10, 10, 15, 20, 25, 50};
+    private static final double UNDISCOUNTED_SHARE = 0.6;
+    private static final double HOLIDAY_CLUSTER_SHARE = 0.7;
+    private static final double LONG_RENTAL_SHARE = 0.05;
+    private static final double MEAN_SHORT_RENTAL_DAYS = 4.0;
+    private static final double HOLIDAY_SPREAD_DAYS = 4.0;
+
+    private final SplittableRandom random;
+    private final String[] toolCodes;
+    private final int firstYear;
+    private final int lastYear;
+    private final List<List<LocalDate>> holidaysByYear = new ArrayList<>();
+
+    /**
+     * @param seed the random seed
+     * @param firstYear the first checkout year, as the CLI parses it from a two-digit year (0 to 99)
+     * @param lastYear the last checkout year (inclusive)
+     */
+    public WorkloadGenerator(long seed, int firstYear, int lastYear) {
+        this.random = new SplittableRandom(seed);
+        this.toolCodes = new ToolRepository().getAllToolCodes().split(",");
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+        for (int year = firstYear; year <= lastYear; year++) {
+            LocalDate startOfYear = LocalDate.of(year, 1, 1);
+            List<LocalDate> holidays = new ArrayList<>(
+                    CalendarHelper.determineHolidays(startOfYear, startOfYear.lengthOfYear() - 1));
+            holidays.sort(null);
+            holidaysByYear.add(holidays);
+        }
+    }
+
+    /**
+     * @return the CLI arguments for the next synthetic checkout request
+     */
+    public String[] nextRequest() {
+        return new String[]{
+                toolCodes[random.nextInt(toolCodes.length)],
+                Integer.toString(nextRentalDays()),
+                Integer.toString(nextDiscount()),
+                CheckoutDateFormat.format(EpochDayCalendar.of(nextCheckoutDate()))
+        };
+    }
+
+    public String[][] nextRequests(int count) {
+        String[][] requests = new String[count][];
+        for (int i = 0; i < count; i++) {
+            requests[i] = nextRequest();
+        }
+        return requests;
+    }
+
+    private int nextRentalDays() {
+        if (random.nextDouble() < LONG_RENTAL_SHARE) {
+            return 30 + random.nextInt(61);
+        }
+        // geometric distribution starting at one day
+        double p = 1.0 / MEAN_SHORT_RENTAL_DAYS;
+        return 1 + (int) (Math.log(1.0 - random.nextDouble()) / Math.log(1.0 - p));
+    }
+
+    private int nextDiscount() {
+        if (random.nextDouble() < UNDISCOUNTED_SHARE) {
+            return 0;
+        }
+        return DISCOUNTS[random.nextInt(DISCOUNTS.length)];
+    }
+
+    private LocalDate nextCheckoutDate() {
+        int yearIndex = random.nextInt(lastYear - firstYear + 1);
+        List<LocalDate> holidays = holidaysByYear.get(yearIndex);
+        if (holidays.isEmpty() || random.nextDouble() >= HOLIDAY_CLUSTER_SHARE) {
+            LocalDate startOfYear = LocalDate.of(firstYear + yearIndex, 1, 1);
+            return startOfYear.plusDays(random.nextInt(startOfYear.lengthOfYear()));
+        }
+        LocalDate holiday = holidays.get(random.nextInt(holidays.size()));
+        // rentals start a few days either side of the holiday, most often just before it
+        long offset = Math.round(nextGaussian() * HOLIDAY_SPREAD_DAYS) - 2;
+        return holiday.plusDays(offset);
+    }
+
+    private double nextGaussian() {
+        // Box-Muller transform; SplittableRandom has no nextGaussian in Java 17
+        double u = 1.0 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * v);
+    }
+}
@@ -2,10 +2,8 @@ package example.repository;
 
 import example.domain.Charge;
 
+import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static example.utils.Constants.*;
 
@@ -17,16 +15,26 @@ import static example.utils.Constants.*;
  * The charge configuration is initialized as a static collection of Charge objects, making
  * it easily accessible across the application. Looking forward,
  * this can be moved to a database with minimal changes in other classes.
+ *
+ * The collection is built on first use by a holder class, with a plain loop rather than
+ * a stream pipeline, to keep lambda bootstrapping out of the CLI's startup path.
  */
 public class ChargeRepository {
-    private static final Map<String, Charge> charges = Stream.of(
+    private static class Charges {
+        private static final Map<String, Charge> byType = new HashMap<>();
+
+        static {
+            for (Charge charge : new Charge[]{
                     Charge.builder().type(LADDER).dailyChargeCents(199).isChargedOnWeekday(true).isChargedOnWeekend(true).isChargedOnHoliday(false).build(),
                     Charge.builder().type(CHAINSAW).dailyChargeCents(149).isChargedOnWeekday(true).isChargedOnWeekend(false).isChargedOnHoliday(true).build(),
                     Charge.builder().type(JACKHAMMER).dailyChargeCents(299).isChargedOnWeekday(true).isChargedOnWeekend(false).isChargedOnHoliday(false).build()
-            )
-        .collect(Collectors.toMap(Charge::getType, Function.identity()));
+            }) {
+                byType.put(charge.getType(), charge);
+            }
+        }
+    }
 
     public Charge getCharge(String type) {
-        return charges.get(type);
+        return Charges.byType.get(type);
     }
 }
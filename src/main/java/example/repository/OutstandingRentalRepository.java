@@ -0,0 +1,48 @@
+package example.repository;
+
+import example.domain.OutstandingRental;
+import example.domain.RentalAgreement;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The OutstandingRentalRepository class keeps the rental agreements whose tools have not been
+ * returned yet, along with their accrued late-fee totals, keyed by a generated rental id.
+ *
+ * Unlike the other repositories this data changes constantly, so it is held per repository
+ * instance in a concurrent map. Looking forward, this can be moved to a database with minimal
+ * changes in other classes.
+ */
+public class OutstandingRentalRepository {
+    private final Map<Long, OutstandingRental> rentals = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1L);
+
+    public OutstandingRental add(RentalAgreement rentalAgreement) {
+        OutstandingRental rental = new OutstandingRental(nextId.getAndIncrement(), rentalAgreement);
+        rentals.put(rental.getId(), rental);
+        return rental;
+    }
+
+    public OutstandingRental getRental(long id) {
+        return rentals.get(id);
+    }
+
+    public OutstandingRental remove(long id) {
+        return rentals.remove(id);
+    }
+
+    /**
+     * Puts back a rental that was removed but could not be settled.
+     */
+    public void restore(OutstandingRental rental) {
+        rentals.put(rental.getId(), rental);
+    }
+
+    public Collection<OutstandingRental> getAllRentals() {
+        return Collections.unmodifiableCollection(rentals.values());
+    }
+}
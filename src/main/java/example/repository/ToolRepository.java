@@ -2,10 +2,8 @@ package example.repository;
 
 import example.domain.Tool;
 
+import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static example.utils.Constants.*;
 
@@ -17,21 +15,31 @@ import static example.utils.Constants.*;
  * As part of the exercise, tools are initialized as a static collection,
  * making them accessible across instances of the repository. Looking forward,
  * this can be moved to a database with minimal changes in other classes.
+ *
+ * The collection is built on first use by a holder class, with a plain loop rather than
+ * a stream pipeline, so that a one-shot CLI run pays no lambda bootstrapping at startup.
  */
 public class ToolRepository {
-    private static final Map<String, Tool> tools = Stream.of(
+    private static class Tools {
+        private static final Map<String, Tool> byCode = new HashMap<>();
+
+        static {
+            for (Tool tool : new Tool[]{
                     Tool.builder().code("CHNS").type(CHAINSAW).brand("Stihl").build(),
                     Tool.builder().code("LADW").type(LADDER).brand("Werner").build(),
                     Tool.builder().code("JAKD").type(JACKHAMMER).brand("DeWalt").build(),
                     Tool.builder().code("JAKR").type(JACKHAMMER).brand("Ridgid").build()
-            )
-            .collect(Collectors.toMap(Tool::getCode, Function.identity()));
+            }) {
+                byCode.put(tool.getCode(), tool);
+            }
+        }
+    }
 
     public Tool getTool(String toolCode) {
-        return tools.get(toolCode);
+        return Tools.byCode.get(toolCode);
     }
 
     public String getAllToolCodes() {
-        return String.join(",", tools.keySet());
+        return String.join(",", Tools.byCode.keySet());
     }
 }
@@ -0,0 +1,388 @@
+package example.service;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The AsyncReceiptWriter decouples pricing threads from receipt output. Pricing threads submit
+ * rendered receipts to a bounded queue and return immediately; a single dedicated writer thread
+ * drains the queue in batches, encodes the receipts into a large direct {@link ByteBuffer} and
+ * writes it to a channel, such as a file or standard output.
+ *
+ * Many pricing threads may submit concurrently while only the writer thread consumes, so the queue
+ * is used as a multi-producer, single-consumer queue. When it is full, the {@link BackPressurePolicy}
+ * decides what a submitting thread does. Queue depth and throughput counters are available through
+ * {@link #getMetrics()} at any time.
+ *
+ * Receipts are written in submission order, except that receipts spilled to disk are written later:
+ * whenever the writer thread finds the queue empty, it copies the spill file to the output and
+ * starts the file over, so the file only holds receipts spilled since. Closing the writer waits for
+ * submissions that are already in progress, including ones blocked on a full queue, so a receipt is
+ * either written or its {@link #submit(String)} fails; it is never silently left in the queue.
+ */
+public class AsyncReceiptWriter implements Closeable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+    public static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+    private static final int MAX_BATCH = 1024;
+    private static final long POLL_MILLIS = 50L;
+
+    /**
+     * What a pricing thread does when it submits a receipt while the queue is full.
+     */
+    public enum BackPressurePolicy {
+        /** Wait for space in the queue; no receipt is lost and order is preserved. */
+        BLOCK,
+        /** Discard the receipt and count it as dropped; pricing never waits on output. */
+        DROP,
+        /** Append the receipt to a spill file on disk, which is copied to the output once the queue is empty. */
+        SPILL
+    }
+
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;
+    private final BackPressurePolicy backPressurePolicy;
+    private final Path spillDirectory;
+    private final BlockingQueue<String> queue;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final Thread writerThread;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    private final Object spillLock = new Object();
+    private Path spillFile;
+    private FileChannel spillChannel;
+    // how much of the spill file has been copied to the output
+    private long spillReadPosition;
+
+    // producers currently inside submit(); the writer thread keeps draining until this drops to zero
+    private final AtomicInteger submitting = new AtomicInteger();
+    private volatile boolean closed;
+    private volatile IOException failure;
+    private volatile IOException spillFailure;
+
+    /**
+     * @param channel the channel receipts are written to
+     * @param closeChannel whether closing this writer also closes the channel
+     * @param queueCapacity the maximum number of receipts waiting to be written
+     * @param bufferBytes the size of the direct buffer the writer thread encodes batches into
+     * @param backPressurePolicy what submitting threads do when the queue is full
+     * @param spillDirectory where the spill file is created for {@link BackPressurePolicy#SPILL}
+     */
+    public AsyncReceiptWriter(WritableByteChannel channel,
+                              boolean closeChannel,
+                              int queueCapacity,
+                              int bufferBytes,
+                              BackPressurePolicy backPressurePolicy,
+                              Path spillDirectory) {
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+        this.backPressurePolicy = backPressurePolicy;
+        this.spillDirectory = spillDirectory;
+        this.writerThread = new Thread(this::drain, "receipt-writer");
+        this.writerThread.start();
+    }
+
+    /**
+     * Creates a writer to standard output. Standard output is flushed but left open on close.
+     */
+    public static AsyncReceiptWriter toStandardOutput(BackPressurePolicy backPressurePolicy) {
+        System.out.flush();
+        return new AsyncReceiptWriter(new FileOutputStream(FileDescriptor.out).getChannel(), false,
+                DEFAULT_QUEUE_CAPACITY, DEFAULT_BUFFER_BYTES, backPressurePolicy, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Creates a writer to a new or truncated file, which is closed when the writer is closed.
+     */
+    public static AsyncReceiptWriter toFile(Path file, BackPressurePolicy backPressurePolicy) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        Path directory = file.toAbsolutePath().getParent();
+        return new AsyncReceiptWriter(channel, true,
+                DEFAULT_QUEUE_CAPACITY, DEFAULT_BUFFER_BYTES, backPressurePolicy, directory);
+    }
+
+    /**
+     * Hands a rendered receipt to the writer thread, applying the back-pressure policy if the queue
+     * is full.
+     *
+     * @param receipt the rendered receipt, including its trailing line separator
+     * @return whether the receipt will be written; false if it was dropped, including when it could
+     *         not be spilled to disk
+     * @throws IllegalStateException if the writer has been closed
+     */
+    public boolean submit(String receipt) {
+        // announce the submission before checking closed; close() sets closed before the writer
+        // thread checks for submissions in progress, so either this check fails or the writer waits
+        submitting.incrementAndGet();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The receipt writer has been closed");
+            }
+            return enqueue(receipt);
+        } finally {
+            submitting.decrementAndGet();
+        }
+    }
+
+    private boolean enqueue(String receipt) {
+        submitted.increment();
+        boolean queued = queue.offer(receipt);
+        if (!queued) {
+            switch (backPressurePolicy) {
+                case BLOCK: {
+                    try {
+                        queue.put(receipt);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        dropped.increment();
+                        return false;
+                    }
+                    break;
+                }
+                case DROP: {
+                    dropped.increment();
+                    return false;
+                }
+                case SPILL: {
+                    return spill(receipt);
+                }
+                default: {
+                    throw new IllegalArgumentException("Unimplemented back-pressure policy: " + backPressurePolicy);
+                }
+            }
+        }
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        return true;
+    }
+
+    /**
+     * @return a snapshot of the queue depth and throughput counters
+     */
+    public Metrics getMetrics() {
+        return new Metrics(queue.size(), maxQueueDepth.get(), submitted.sum(), written.sum(),
+                dropped.sum(), spilled.sum(), batches.sum());
+    }
+
+    /**
+     * Stops accepting receipts, waits for submissions in progress and for the writer thread to
+     * write everything queued and spilled, and releases the channel. Closing a
+     * writer that is already closed has no effect.
+     *
+     * @throws IOException if writing or spilling any receipt failed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for receipts to be written", e);
+        }
+
+        try {
+            synchronized (spillLock) {
+                if (spillChannel != null) {
+                    spillChannel.close();
+                    Files.deleteIfExists(spillFile);
+                    spillChannel = null;
+                    spillFile = null;
+                }
+            }
+        } finally {
+            if (closeChannel) {
+                channel.close();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        if (spillFailure != null) {
+            throw spillFailure;
+        }
+    }
+
+    private void drain() {
+        List<String> batch = new ArrayList<>(MAX_BATCH);
+        // the order of these checks matters: a producer that enters submit() after the writer has
+        // seen no submissions in progress is guaranteed to see closed and enqueue nothing
+        while (!closed || submitting.get() > 0 || !queue.isEmpty()) {
+            String first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // only close() stops the writer, once the queue is empty
+                continue;
+            }
+            if (first != null) {
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+
+                if (failure == null) {
+                    try {
+                        writeBatch(batch);
+                        written.add(batch.size());
+                        batches.increment();
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                if (failure != null) {
+                    // keep draining so that blocked producers are released; close() reports the failure
+                    dropped.add(batch.size());
+                }
+                batch.clear();
+            }
+            if (queue.isEmpty()) {
+                replaySpillFile();
+            }
+        }
+        // receipts spilled by the last submissions in progress
+        replaySpillFile();
+    }
+
+    private void writeBatch(List<String> batch) throws IOException {
+        for (String receipt : batch) {
+            CharBuffer chars = CharBuffer.wrap(receipt);
+            encoder.reset();
+            CoderResult result;
+            do {
+                result = encoder.encode(chars, buffer, true);
+                if (result.isOverflow()) {
+                    flushBuffer();
+                }
+            } while (result.isOverflow());
+            while (encoder.flush(buffer).isOverflow()) {
+                flushBuffer();
+            }
+        }
+        flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private boolean spill(String receipt) {
+        ByteBuffer bytes = ByteBuffer.wrap(receipt.getBytes(StandardCharsets.UTF_8));
+        synchronized (spillLock) {
+            try {
+                if (spillChannel == null) {
+                    spillFile = Files.createTempFile(spillDirectory, "receipts-", ".spill");
+                    spillChannel = FileChannel.open(spillFile, StandardOpenOption.WRITE, StandardOpenOption.READ);
+                }
+                while (bytes.hasRemaining()) {
+                    spillChannel.write(bytes);
+                }
+            } catch (IOException e) {
+                // like a failed write, the receipt is counted as dropped and close() reports the failure
+                if (spillFailure == null) {
+                    spillFailure = e;
+                }
+                dropped.increment();
+                return false;
+            }
+        }
+        spilled.increment();
+        return true;
+    }
+
+    /**
+     * Copies the receipts spilled since the last replay to the output and empties the spill file.
+     * Producers that spill meanwhile wait for the copy, which only happens while the queue is empty.
+     */
+    private void replaySpillFile() {
+        if (failure != null) {
+            return;
+        }
+        synchronized (spillLock) {
+            try {
+                if (spillChannel == null) {
+                    return;
+                }
+                long size = spillChannel.size();
+                if (size == 0L) {
+                    return;
+                }
+                while (spillReadPosition < size) {
+                    spillReadPosition += spillChannel.transferTo(spillReadPosition, size - spillReadPosition, channel);
+                }
+                spillChannel.truncate(0L);
+                spillReadPosition = 0L;
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * A snapshot of the writer's queue depth and counters. Submitted receipts are eventually either
+     * written, dropped or spilled.
+     */
+    @Getter
+    public static class Metrics {
+        private final int queueDepth;
+        private final int maxQueueDepth;
+        private final long submitted;
+        private final long written;
+        private final long dropped;
+        private final long spilled;
+        private final long batches;
+
+        Metrics(int queueDepth, int maxQueueDepth, long submitted, long written, long dropped, long spilled, long batches) {
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+            this.submitted = submitted;
+            this.written = written;
+            this.dropped = dropped;
+            this.spilled = spilled;
+            this.batches = batches;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("queue depth %d (max %d), %d submitted, %d written in %d batches, %d dropped, %d spilled",
+                    queueDepth, maxQueueDepth, submitted, written, batches, dropped, spilled);
+        }
+    }
+}
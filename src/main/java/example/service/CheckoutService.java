@@ -3,13 +3,9 @@ package example.service;
 import example.domain.Tool;
 import example.domain.RentalAgreement;
 import example.repository.ToolRepository;
+import example.utils.CheckoutDateFormat;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-
-import static java.time.temporal.ChronoField.*;
 
 /**
  * The CheckoutService class handles the processing of tool rentals by creating a rental agreement
@@ -22,17 +18,13 @@ import static java.time.temporal.ChronoField.*;
  * - Tool data is retrieved from the {@link ToolRepository}.
  * - A rental agreement specifying the rental terms is created.
  * - The receipt is printed using the {@link ReceiptPrinterService}.
+ *
+ * Checkout dates are parsed with {@link CheckoutDateFormat} rather than a DateTimeFormatter, which
+ * keeps the formatter machinery out of the CLI's startup path.
  */
 public class CheckoutService {
     private final ToolRepository toolRepository = new ToolRepository();
     private final ReceiptPrinterService receiptPrinterService = new ReceiptPrinterService();
-    public static final DateTimeFormatter formatter = new DateTimeFormatterBuilder()
-            .appendValue(MONTH_OF_YEAR, 2)
-            .appendLiteral('/')
-            .appendValue(DAY_OF_MONTH, 2)
-            .appendLiteral('/')
-            .appendValue(YEAR, 2)
-            .toFormatter();
 
     /**
      * Processes a tool rental checkout by validating the input arguments, creating a rental agreement,
@@ -47,61 +39,68 @@ public class CheckoutService {
      *             args[3] - The checkout date in the format MM/dd/YY, as a string.
      */
     public void checkout(String[] args) {
-        if (args.length != 4) {
-            System.err.println("wrong number of arguments");
+        RentalAgreement rentalAgreement;
+        try {
+            rentalAgreement = createRentalAgreement(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
             printUsage();
             return;
         }
 
+        receiptPrinterService.printReceipt(rentalAgreement);
+    }
+
+    /**
+     * Validates the checkout arguments and creates the corresponding rental agreement without printing
+     * anything. This is the entry point for callers that price many agreements, such as batch workers,
+     * and want to decide for themselves what to do with the result.
+     *
+     * @param args the same four arguments accepted by {@link #checkout(String[])}
+     * @return the rental agreement described by the arguments
+     * @throws IllegalArgumentException if the arguments are missing or invalid; the message describes
+     *                                  the problem in the same words printed by the CLI
+     */
+    public RentalAgreement createRentalAgreement(String[] args) {
+        if (args.length != 4) {
+            throw new IllegalArgumentException("wrong number of arguments");
+        }
+
         String toolCode = args[0];
         int rentalDays;
         try {
             rentalDays = Integer.parseInt(args[1]);
         } catch (NumberFormatException e) {
-            System.err.println("The rental day count must be a positive integer");
-            printUsage();
-            return;
+            throw new IllegalArgumentException("The rental day count must be a positive integer");
         }
         BigDecimal discountPercentage;
         try {
             discountPercentage = new BigDecimal(args[2]);
         } catch (NumberFormatException e) {
-            System.err.println("The discount percentage must be a valid number");
-            printUsage();
-            return;
+            throw new IllegalArgumentException("The discount percentage must be a valid number");
         }
-        LocalDate checkoutDate;
+        int checkoutEpochDay;
         try {
-            checkoutDate = LocalDate.parse(args[3], formatter);
+            checkoutEpochDay = CheckoutDateFormat.parse(args[3]);
         } catch (Exception e) {
-            System.err.println("The checkout date must be formatted like MM/dd/YY");
-            printUsage();
-            return;
+            throw new IllegalArgumentException("The checkout date must be formatted like MM/dd/YY");
         }
         Tool tool = toolRepository.getTool(toolCode);
 
         if (rentalDays <= 0) {
-            System.err.println("The number of rental days must be 1 or greater");
-            printUsage();
-            return;
+            throw new IllegalArgumentException("The number of rental days must be 1 or greater");
         }
 
         if (!(discountPercentage.compareTo(BigDecimal.valueOf(0L)) >= 0 &&
                 discountPercentage.compareTo(BigDecimal.valueOf(100L)) < 0)) {
-            System.err.println("The discount percentage must be between 0 and 100");
-            printUsage();
-            return;
+            throw new IllegalArgumentException("The discount percentage must be between 0 and 100");
         }
         
         if (tool == null) {
-            System.err.println("The tool code provided does not match any tool in the repository.");
-            printUsage();
-            return;
+            throw new IllegalArgumentException("The tool code provided does not match any tool in the repository.");
         }
 
-        RentalAgreement rentalAgreement = new RentalAgreement(tool, rentalDays, checkoutDate, discountPercentage);
-
-        receiptPrinterService.printReceipt(rentalAgreement);
+        return new RentalAgreement(tool, rentalDays, checkoutEpochDay, discountPercentage);
     }
 
     private void printUsage() {
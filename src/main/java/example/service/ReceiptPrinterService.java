@@ -1,12 +1,9 @@
 package example.service;
 
 import example.domain.RentalAgreement;
+import example.utils.CheckoutDateFormat;
 import example.utils.Receipt;
 
-import java.math.BigDecimal;
-import java.text.NumberFormat;
-import java.util.Locale;
-
 /**
  * The ReceiptPrinterService class is responsible for printing the details of a rental transaction
  * as specified in a given {@link RentalAgreement}. It outputs key information about the rental,
@@ -28,36 +25,92 @@ import java.util.Locale;
  *
  * This service converts charge values from cents to a formatted currency string and makes use
  * of a {@link Receipt} object to calculate and retrieve certain billing details.
+ *
+ * By default receipts are printed synchronously to the console. When constructed with an
+ * {@link AsyncReceiptWriter}, receipts are handed off to its writer thread instead, so that the
+ * calling thread does not wait on console or pipe I/O.
  */
 public class ReceiptPrinterService {
+    // comfortably above the length of a rendered receipt, so the builder never grows
+    private static final int RECEIPT_CAPACITY = 384;
+
+    private final AsyncReceiptWriter receiptWriter;
+
+    public ReceiptPrinterService() {
+        this(null);
+    }
+
+    public ReceiptPrinterService(AsyncReceiptWriter receiptWriter) {
+        this.receiptWriter = receiptWriter;
+    }
+
     public void printReceipt(RentalAgreement rentalAgreement) {
+        String receipt = renderReceipt(rentalAgreement);
+        if (receiptWriter != null) {
+            receiptWriter.submit(receipt);
+        } else {
+            System.out.print(receipt);
+        }
+    }
+
+    /**
+     * Renders the receipt for the given rental agreement into a string, one line per receipt field,
+     * exactly as {@link #printReceipt(RentalAgreement)} would print it.
+     *
+     * @param rentalAgreement the rental agreement to render
+     * @return the rendered receipt, including the trailing line separator
+     */
+    public String renderReceipt(RentalAgreement rentalAgreement) {
         Receipt receipt = new Receipt(rentalAgreement);
+        String newLine = System.lineSeparator();
 
-        System.out.println("Tool code: " + rentalAgreement.getTool().getCode());
-        System.out.println("Tool type: " + rentalAgreement.getTool().getType());
-        System.out.println("Tool brand: " + rentalAgreement.getTool().getBrand());
-        System.out.println("Rental days: " + rentalAgreement.getRentalDays());
-        System.out.println("Check out date: " + CheckoutService.formatter.format(rentalAgreement.getCheckOutDate()));
-        System.out.println("Due date: " + CheckoutService.formatter.format(rentalAgreement.getDueDate()));
-        System.out.println("Daily rental charge: " + centsToCurrencyString(rentalAgreement.getDailyRentalChargeInCents()));
-        System.out.println("Charge days: " + receipt.getChargeDays());
-        System.out.println("Pre-discount charge: " + centsToCurrencyString(receipt.getPreDiscountChargeCents()));
-        System.out.println("Discount percent: " + rentalAgreement.getDiscountPercentage() + "%");
-        System.out.println("Discount amount: " + centsToCurrencyString(receipt.getDiscountCents().intValue()));
-        System.out.println("Final charge: " + centsToCurrencyString(receipt.getFinalChargeCents().intValue()));
+        // appended explicitly rather than concatenated: the one-shot CLI renders a single receipt, and
+        // concatenation would spend its startup bootstrapping an invokedynamic call site
+        return new StringBuilder(RECEIPT_CAPACITY)
+                .append("Tool code: ").append(rentalAgreement.getTool().getCode()).append(newLine)
+                .append("Tool type: ").append(rentalAgreement.getTool().getType()).append(newLine)
+                .append("Tool brand: ").append(rentalAgreement.getTool().getBrand()).append(newLine)
+                .append("Rental days: ").append(rentalAgreement.getRentalDays()).append(newLine)
+                .append("Check out date: ").append(CheckoutDateFormat.format(rentalAgreement.getCheckOutEpochDay())).append(newLine)
+                .append("Due date: ").append(CheckoutDateFormat.format(rentalAgreement.getDueEpochDay())).append(newLine)
+                .append("Daily rental charge: ").append(centsToCurrencyString(rentalAgreement.getDailyRentalChargeInCents())).append(newLine)
+                .append("Charge days: ").append(receipt.getChargeDays()).append(newLine)
+                .append("Pre-discount charge: ").append(centsToCurrencyString(receipt.getPreDiscountChargeCents())).append(newLine)
+                .append("Discount percent: ").append(rentalAgreement.getDiscountPercentage()).append('%').append(newLine)
+                .append("Discount amount: ").append(centsToCurrencyString(receipt.getDiscountCents().intValue())).append(newLine)
+                .append("Final charge: ").append(centsToCurrencyString(receipt.getFinalChargeCents().intValue())).append(newLine)
+                .toString();
     }
 
     /**
      * Converts a monetary value represented in cents to a formatted currency string.
      * This method ensures that the cents value is properly scaled to dollars and formatted
-     * according to the US currency standards.
+     * according to the US currency standards, the same way as the US currency NumberFormat
+     * (for example {@code $1,234.50} and {@code -$0.05}), without loading locale data.
      *
      * @param cents the monetary value in cents to be converted to a currency string.
      * @return a string representing the formatted currency value in dollars.
      */
-    private String centsToCurrencyString(int cents) {
-        BigDecimal dollars = BigDecimal.valueOf(cents, 2);
-        NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
-        return currencyFormatter.format(dollars);
+    static String centsToCurrencyString(int cents) {
+        long absoluteCents = Math.abs((long) cents);
+        String dollars = Long.toString(absoluteCents / 100);
+        int remainingCents = (int) (absoluteCents % 100);
+
+        StringBuilder currency = new StringBuilder(dollars.length() + 8);
+        if (cents < 0) {
+            currency.append('-');
+        }
+        currency.append('$');
+        // group the dollars in thousands, starting with a group of one to three digits
+        int groupEnd = dollars.length() % 3 == 0 ? 3 : dollars.length() % 3;
+        currency.append(dollars, 0, groupEnd);
+        for (; groupEnd < dollars.length(); groupEnd += 3) {
+            currency.append(',').append(dollars, groupEnd, groupEnd + 3);
+        }
+        currency.append('.');
+        if (remainingCents < 10) {
+            currency.append('0');
+        }
+        return currency.append(remainingCents).toString();
     }
 }
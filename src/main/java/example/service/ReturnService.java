@@ -0,0 +1,118 @@
+package example.service;
+
+import example.domain.Charge;
+import example.domain.OutstandingRental;
+import example.domain.RentalAgreement;
+import example.repository.OutstandingRentalRepository;
+import example.utils.CalendarHelper;
+import example.utils.EpochDayCalendar;
+import example.utils.Settlement;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ReturnService class handles tool returns and the late fees of tools that are kept past their
+ * due date. Checked out agreements are kept in an {@link OutstandingRentalRepository} until the tool
+ * is returned, when they are settled into a {@link Settlement}.
+ *
+ * Late fees are accrued by a nightly batch, {@link #accrueLateFees(LocalDate)}, which only adds the
+ * days since each rental's stored running totals instead of repricing it from the checkout date.
+ * Every rental in a run shares the same business date, so whether that one day is chargeable is
+ * decided once per charge type and reused; only rentals that missed earlier runs walk the calendar
+ * for the gap. Rentals are independent of each other and are accrued in parallel.
+ */
+public class ReturnService {
+    private final OutstandingRentalRepository outstandingRentalRepository;
+
+    public ReturnService() {
+        this(new OutstandingRentalRepository());
+    }
+
+    public ReturnService(OutstandingRentalRepository outstandingRentalRepository) {
+        this.outstandingRentalRepository = outstandingRentalRepository;
+    }
+
+    /**
+     * Records a checked out agreement as outstanding until its tool is returned.
+     *
+     * @return the outstanding rental, whose id identifies it on return
+     */
+    public OutstandingRental checkOut(RentalAgreement rentalAgreement) {
+        return outstandingRentalRepository.add(rentalAgreement);
+    }
+
+    /**
+     * Settles an outstanding rental whose tool was returned on the given date and removes it from
+     * the outstanding rentals. Late fees are brought up to the return date from the accrued running
+     * totals.
+     *
+     * @throws IllegalArgumentException if there is no outstanding rental with that id, or the return
+     *                                  date is before the check out date
+     */
+    public Settlement returnTool(long rentalId, LocalDate returnDate) {
+        // claim the rental before settling it, so that concurrent returns of the same id cannot both settle
+        OutstandingRental rental = outstandingRentalRepository.remove(rentalId);
+        if (rental == null) {
+            throw new IllegalArgumentException("The rental id provided does not match any outstanding rental.");
+        }
+        int returnEpochDay = EpochDayCalendar.of(returnDate);
+        try {
+            synchronized (rental) {
+                if (returnEpochDay >= rental.getAccruedThroughEpochDay()) {
+                    accrue(rental, returnEpochDay);
+                    return new Settlement(rental.getRentalAgreement(), returnEpochDay,
+                            rental.getLateChargeDays(), rental.getLateFeeCents());
+                }
+                // the tool came back before days that were already accrued, so the totals overshoot
+                return new Settlement(rental.getRentalAgreement(), returnEpochDay);
+            }
+        } catch (IllegalArgumentException e) {
+            // the return could not be settled, so the rental is still outstanding
+            outstandingRentalRepository.restore(rental);
+            throw e;
+        }
+    }
+
+    /**
+     * Accrues late fees for every outstanding rental through the given business date, which is
+     * normally the day that just ended. Rentals that are not yet overdue, or that are already accrued
+     * through the date, are left unchanged, so re-running a night is harmless.
+     *
+     * @return the number of rentals whose totals were updated
+     */
+    public int accrueLateFees(LocalDate businessDate) {
+        int businessEpochDay = EpochDayCalendar.of(businessDate);
+        Map<Charge, Integer> chargeDaysOnBusinessDate = new ConcurrentHashMap<>();
+        AtomicInteger accrued = new AtomicInteger();
+        outstandingRentalRepository.getAllRentals().parallelStream().forEach(rental -> {
+            synchronized (rental) {
+                int accruedThroughEpochDay = rental.getAccruedThroughEpochDay();
+                if (accruedThroughEpochDay >= businessEpochDay) {
+                    return;
+                }
+                int chargeDays;
+                if (accruedThroughEpochDay == businessEpochDay - 1) {
+                    chargeDays = chargeDaysOnBusinessDate.computeIfAbsent(rental.getRentalAgreement().getCharge(),
+                            charge -> CalendarHelper.calculateChargeDays(businessEpochDay - 1, 1, charge));
+                } else {
+                    chargeDays = CalendarHelper.calculateChargeDays(accruedThroughEpochDay,
+                            businessEpochDay - accruedThroughEpochDay, rental.getRentalAgreement().getCharge());
+                }
+                rental.recordAccrual(businessEpochDay, chargeDays);
+            }
+            accrued.incrementAndGet();
+        });
+        return accrued.get();
+    }
+
+    private void accrue(OutstandingRental rental, int throughEpochDay) {
+        int accruedThroughEpochDay = rental.getAccruedThroughEpochDay();
+        if (throughEpochDay > accruedThroughEpochDay) {
+            rental.recordAccrual(throughEpochDay, CalendarHelper.calculateChargeDays(accruedThroughEpochDay,
+                    throughEpochDay - accruedThroughEpochDay, rental.getRentalAgreement().getCharge()));
+        }
+    }
+}
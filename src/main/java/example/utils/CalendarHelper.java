@@ -1,18 +1,36 @@
 package example.utils;
 
 import example.domain.Charge;
+import example.domain.Holiday;
 import example.repository.HolidayRepository;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Utility class that provides helper methods for handling date-related calculations
  * and determining chargeable days in a rental scenario.
+ *
+ * The calculations work on {@link EpochDayCalendar} epoch days so that walking a rental period
+ * allocates no date objects. The {@link LocalDate} overloads convert once and delegate.
+ *
+ * The Gregorian calendar, including its days of the week, repeats every 400 years, so the observed
+ * holidays of a year only depend on its year of the cycle. They are computed the first time a year
+ * of the cycle is needed and kept in a table, so pricing a rental only walks a cursor over arrays
+ * that already exist.
  */
 public class CalendarHelper {
+    private static final HolidayRepository holidayRepository = new HolidayRepository();
+    private static final int YEARS_PER_CYCLE = 400;
+    private static final int NO_HOLIDAY = Integer.MIN_VALUE;
+    // the observed holidays of each year of the cycle as sorted days of the year, filled in on first use
+    private static final AtomicReferenceArray<int[]> observedHolidaysByYearOfCycle = new AtomicReferenceArray<>(YEARS_PER_CYCLE);
+
     /**
      * Calculates the number of chargeable days within a rental period, based on the rental rules
      * for weekends, weekdays, and holidays. Non-chargeable days are excluded based on the
@@ -28,23 +46,68 @@ public class CalendarHelper {
             LocalDate checkoutDate,
             int rentalDays,
             Charge charge) {
-        Set<LocalDate> holidays = determineHolidays(checkoutDate, rentalDays);
+        return calculateChargeDays(EpochDayCalendar.of(checkoutDate), rentalDays, charge);
+    }
 
-        LocalDate date = checkoutDate.plusDays(1);
+    /**
+     * Calculates the number of chargeable days within a rental period, as
+     * {@link #calculateChargeDays(LocalDate, int, Charge)} does, for a checkout date given as an epoch day.
+     *
+     * @param checkoutEpochDay the starting date of the rental period, as an epoch day
+     * @param rentalDays the length of the rental period in days
+     * @param charge the charge configuration which dictates whether weekends, holidays,
+     *               and weekdays are chargeable
+     * @return the number of chargeable days within the provided rental period
+     */
+    public static int calculateChargeDays(
+            int checkoutEpochDay,
+            int rentalDays,
+            Charge charge) {
+        int date = checkoutEpochDay + 1;
+        int dayOfWeek = EpochDayCalendar.dayOfWeek(date);
+        int year = EpochDayCalendar.year(date);
+        int yearStart = EpochDayCalendar.of(year, 1, 1);
         int chargeDays = 0;
-        
-        // Loop through each day in the rental period to calculate the number of chargeable days.
-        // Excludes days based on the “no charge” rules for weekends, weekdays, and holidays.
-        while (rentalDays-- > 0) {
-            // Count of chargeable days, excluding “no charge” days
-            if ((isWeekend(date.getDayOfWeek()) && !charge.isChargedOnWeekend()) ||
-                    (isWeekday(date.getDayOfWeek()) && !charge.isChargedOnWeekday()) ||
-                    (holidays.contains(date) && !charge.isChargedOnHoliday())) {
-                // this type of day is excluded
-            } else {
-                chargeDays++;
+
+        // Loop through the years of the rental period, and through each day of the rental period
+        // within the year to calculate the number of chargeable days. Excludes days based on the
+        // “no charge” rules for weekends, weekdays, and holidays. The holidays of a year are
+        // sorted, so a single cursor tracks the next holiday on or after the date.
+        while (rentalDays > 0) {
+            int nextYearStart = EpochDayCalendar.of(year + 1, 1, 1);
+            int[] holidays = observedHolidaysOfYear(year);
+            int dayOfYear = date - yearStart;
+            int endOfRentalInYear = dayOfYear + Math.min(rentalDays, nextYearStart - date);
+            rentalDays -= endOfRentalInYear - dayOfYear;
+            date += endOfRentalInYear - dayOfYear;
+
+            int nextHoliday = 0;
+            while (nextHoliday < holidays.length && holidays[nextHoliday] < dayOfYear) {
+                nextHoliday++;
             }
-            date = date.plusDays(1);
+            int nextHolidayDay = nextHoliday < holidays.length ? holidays[nextHoliday] : Integer.MAX_VALUE;
+
+            for (; dayOfYear < endOfRentalInYear; dayOfYear++) {
+                boolean isHoliday = dayOfYear == nextHolidayDay;
+                if (isHoliday) {
+                    nextHoliday++;
+                    nextHolidayDay = nextHoliday < holidays.length ? holidays[nextHoliday] : Integer.MAX_VALUE;
+                }
+                boolean isWeekend = EpochDayCalendar.isWeekend(dayOfWeek);
+
+                // Count of chargeable days, excluding “no charge” days
+                if ((isWeekend && !charge.isChargedOnWeekend()) ||
+                        (!isWeekend && !charge.isChargedOnWeekday()) ||
+                        (isHoliday && !charge.isChargedOnHoliday())) {
+                    // this type of day is excluded
+                } else {
+                    chargeDays++;
+                }
+                dayOfWeek = dayOfWeek == 7 ? 1 : dayOfWeek + 1;
+            }
+
+            year++;
+            yearStart = nextYearStart;
         }
 
         return chargeDays;
@@ -52,64 +115,122 @@ public class CalendarHelper {
 
     /**
      * Determines the set of holidays within a specified rental period, based on the checkout date 
-     * and rental duration. The holidays are identified through a repository, and adjustments 
-     * are made for weekends if required based on their observance rules.
+     * and rental duration. The holidays observed in every year the rental period touches are
+     * returned, from the same tables {@link #calculateChargeDays(int, int, Charge)} uses, so both
+     * always agree on which days are holidays, including their weekend observance.
      *
      * @param checkoutDate the starting date of the rental period
      * @param rentalDays the length of the rental period in days
      * @return a set of LocalDate objects representing the holidays within the rental period
      */
-    private static Set<LocalDate> determineHolidays(LocalDate checkoutDate, int rentalDays) {
-        HolidayRepository holidayRepository = new HolidayRepository();
+    public static Set<LocalDate> determineHolidays(LocalDate checkoutDate, int rentalDays) {
+        int checkoutEpochDay = EpochDayCalendar.of(checkoutDate);
+        int startYear = EpochDayCalendar.year(checkoutEpochDay);
+        int endYear = EpochDayCalendar.year(checkoutEpochDay + rentalDays);
         Set<LocalDate> holidayDates = new HashSet<>();
+        for (int year = startYear; year <= endYear; year++) {
+            int yearStart = EpochDayCalendar.of(year, 1, 1);
+            for (int holiday : observedHolidaysOfYear(year)) {
+                holidayDates.add(EpochDayCalendar.toLocalDate(yearStart + holiday));
+            }
+        }
+        return holidayDates;
+    }
 
-        // get the year for the last day of the rental period
-        int endYear = checkoutDate.plusDays(rentalDays).getYear();
-
-        // Iterate through all years within the rental period to calculate applicable holidays.
-        // Each holiday is determined based on its type (e.g., fixed date or nth weekday) and 
-        // adjusted for weekend observance rules before being added to the holiday set.
-        holidayRepository.getHolidays().forEach(holiday -> {
-            for (int year = checkoutDate.getYear(); year <= endYear; year++) {
-                switch (holiday.getType()) {
-                    case FIXED_DAY: {
-                        holidayDates.add(
-                                adjustForWeekendObservance(
-                                        LocalDate.of(year, holiday.getMonth(), holiday.getDayOfMonth()),
-                                        holiday.isObservedOnClosestWeekday()
-                                )
-                        );
-                        break;
-                    }
-                    case NTH_WEEKDAY: {
-                        LocalDate date = LocalDate.of(year, holiday.getMonth(), 1);
-                        int weekdayOffset = holiday.getDayOfWeek().getValue() - date.getDayOfWeek().getValue();
-
-                        // adjust date based on day-of-week difference from the desired weekday
-                        date = date.plusDays((weekdayOffset + 7) % 7);
-
-                        // adjust date based on which day-of-week is desired (eg the 2nd monday)
-                        date = date.plusDays(7L * (holiday.getNthOfMonth() - 1));
-                        if (date.getMonth() == holiday.getMonth()) {
-                            holidayDates.add(
-                                    adjustForWeekendObservance(date, holiday.isObservedOnClosestWeekday())
-                            );
-                        } else {
-                            // TODO: how should an illegal holiday configuration be handled?
-                            //       eg "the 10th Sunday of the month"
-                            //       currently do nothing with the assumption that such a configuration
-                            //       doesn't exist and that any newly added holidays will be tested
-                        }
-                        break;
-                    }
-                    default: {
-                        throw new IllegalArgumentException("Unimplemented holiday type: " + holiday.getType());
-                    }
+    /**
+     * Looks up the holidays observed in a year, computing them for its year of the cycle the first
+     * time that year of the cycle is needed.
+     *
+     * @param year the proleptic year
+     * @return the observed holidays as sorted days of the year, counted from 0 for January 1
+     */
+    private static int[] observedHolidaysOfYear(int year) {
+        int yearOfCycle = Math.floorMod(year, YEARS_PER_CYCLE);
+        int[] holidays = observedHolidaysByYearOfCycle.get(yearOfCycle);
+        if (holidays == null) {
+            // racing threads compute equal arrays, so whichever is stored last is as good as any
+            holidays = determineObservedHolidaysOfYear(yearOfCycle);
+            observedHolidaysByYearOfCycle.set(yearOfCycle, holidays);
+        }
+        return holidays;
+    }
+
+    /**
+     * Determines the holidays observed in a year. A holiday can be observed in the year before or
+     * after its own, such as a Saturday January 1 observed on the preceding Friday, so the holidays of
+     * the neighbouring years are considered as well.
+     *
+     * @param year the proleptic year
+     * @return the observed holidays as sorted days of the year, counted from 0 for January 1
+     */
+    private static int[] determineObservedHolidaysOfYear(int year) {
+        List<Holiday> holidays = holidayRepository.getHolidays();
+        int yearStart = EpochDayCalendar.of(year, 1, 1);
+        int nextYearStart = EpochDayCalendar.of(year + 1, 1, 1);
+        int[] holidayDays = new int[holidays.size() * 3];
+        int count = 0;
+
+        for (Holiday holiday : holidays) {
+            for (int holidayYear = year - 1; holidayYear <= year + 1; holidayYear++) {
+                int date = determineObservedHoliday(holiday, holidayYear);
+                if (date != NO_HOLIDAY && date >= yearStart && date < nextYearStart) {
+                    holidayDays[count++] = date - yearStart;
                 }
             }
-        });
+        }
 
-        return holidayDates;
+        // sort and drop holidays observed on the same day, so the cursor steps over each day once
+        Arrays.sort(holidayDays, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || holidayDays[distinct - 1] != holidayDays[i]) {
+                holidayDays[distinct++] = holidayDays[i];
+            }
+        }
+        return Arrays.copyOf(holidayDays, distinct);
+    }
+
+    /**
+     * Determines the date a holiday is observed on in a given year. The holiday is determined based
+     * on its type (e.g., fixed date or nth weekday) and adjusted for weekend observance rules.
+     *
+     * @param holiday the holiday to determine
+     * @param year the year to determine it for
+     * @return the observed holiday as an epoch day, or {@link #NO_HOLIDAY} if the holiday
+     *         configuration does not match a date in that year
+     */
+    private static int determineObservedHoliday(Holiday holiday, int year) {
+        int month = holiday.getMonth().getValue();
+        switch (holiday.getType()) {
+            case FIXED_DAY: {
+                return adjustForWeekendObservance(
+                        EpochDayCalendar.of(year, month, holiday.getDayOfMonth()),
+                        holiday.isObservedOnClosestWeekday()
+                );
+            }
+            case NTH_WEEKDAY: {
+                int date = EpochDayCalendar.of(year, month, 1);
+                int weekdayOffset = holiday.getDayOfWeek().getValue() - EpochDayCalendar.dayOfWeek(date);
+
+                // adjust date based on day-of-week difference from the desired weekday
+                date += (weekdayOffset + 7) % 7;
+
+                // adjust date based on which day-of-week is desired (eg the 2nd monday)
+                date += 7 * (holiday.getNthOfMonth() - 1);
+                if (EpochDayCalendar.month(date) == month) {
+                    return adjustForWeekendObservance(date, holiday.isObservedOnClosestWeekday());
+                } else {
+                    // TODO: how should an illegal holiday configuration be handled?
+                    //       eg "the 10th Sunday of the month"
+                    //       currently do nothing with the assumption that such a configuration
+                    //       doesn't exist and that any newly added holidays will be tested
+                    return NO_HOLIDAY;
+                }
+            }
+            default: {
+                throw new IllegalArgumentException("Unimplemented holiday type: " + holiday.getType());
+            }
+        }
     }
 
     /**
@@ -119,17 +240,18 @@ public class CalendarHelper {
      * (Friday for Saturday and Monday for Sunday). If the adjustment flag is
      * disabled, the date remains unchanged.
      *
-     * @param date the date to be adjusted
+     * @param date the epoch day to be adjusted
      * @param observedOnClosestWeekday a flag indicating whether to observe the date on
      *                                 the closest weekday when it falls on a weekend
-     * @return the adjusted date reflecting the weekend observance rule, if applicable
+     * @return the adjusted epoch day reflecting the weekend observance rule, if applicable
      */
-    private static LocalDate adjustForWeekendObservance(LocalDate date, boolean observedOnClosestWeekday) {
+    private static int adjustForWeekendObservance(int date, boolean observedOnClosestWeekday) {
         if (observedOnClosestWeekday) {
-            if (date.getDayOfWeek() == DayOfWeek.SATURDAY) {
-                return date.minusDays(1);
-            } else if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
-                return date.plusDays(1);
+            int dayOfWeek = EpochDayCalendar.dayOfWeek(date);
+            if (dayOfWeek == DayOfWeek.SATURDAY.getValue()) {
+                return date - 1;
+            } else if (dayOfWeek == DayOfWeek.SUNDAY.getValue()) {
+                return date + 1;
             } else {
                 return date;
             }
@@ -137,12 +259,4 @@ public class CalendarHelper {
             return date;
         }
     }
-
-    private static boolean isWeekend(DayOfWeek day) {
-        return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
-    }
-
-    private static boolean isWeekday(DayOfWeek dayOfWeek) {
-        return !isWeekend(dayOfWeek);
-    }
 }
@@ -0,0 +1,69 @@
+package example.utils;
+
+import java.time.DateTimeException;
+
+/**
+ * Utility class that parses and formats checkout dates in the {@code MM/dd/YY} format used by the
+ * CLI and on receipts, working directly on {@link EpochDayCalendar} epoch days.
+ *
+ * It behaves exactly like a {@link java.time.format.DateTimeFormatter} built from fixed-width
+ * two-digit month, day and year fields with the default smart resolver: the year is taken literally
+ * (so {@code 20} is the year 20), a day of month beyond the end of the month is moved back to the
+ * last day of that month, and years that need more than two digits cannot be printed. Unlike the
+ * formatter, it needs no java.time.format classes, which keeps them out of the CLI's startup path.
+ */
+public class CheckoutDateFormat {
+    private static final int LENGTH = 8;
+
+    /**
+     * @param text a date formatted like {@code MM/dd/YY}
+     * @return the epoch day of the date
+     * @throws DateTimeException if the text is not a valid date in that format
+     */
+    public static int parse(String text) {
+        if (text.length() != LENGTH || text.charAt(2) != '/' || text.charAt(5) != '/') {
+            throw new DateTimeException("Text '" + text + "' could not be parsed");
+        }
+        int month = twoDigits(text, 0);
+        int dayOfMonth = twoDigits(text, 3);
+        int year = twoDigits(text, 6);
+        if (month < 1 || month > 12 || dayOfMonth < 1 || dayOfMonth > 31) {
+            throw new DateTimeException("Text '" + text + "' could not be parsed");
+        }
+
+        return EpochDayCalendar.of(year, month, Math.min(dayOfMonth, EpochDayCalendar.lengthOfMonth(year, month)));
+    }
+
+    /**
+     * @param epochDay the date to format
+     * @return the date formatted like {@code MM/dd/YY}
+     * @throws DateTimeException if the year is outside 0 to 99 and cannot be printed in two digits
+     */
+    public static String format(int epochDay) {
+        int year = EpochDayCalendar.year(epochDay);
+        if (year < 0 || year > 99) {
+            throw new DateTimeException("Field Year cannot be printed as the value " + year + " exceeds the maximum print width of 2");
+        }
+        char[] chars = new char[LENGTH];
+        putTwoDigits(chars, 0, EpochDayCalendar.month(epochDay));
+        chars[2] = '/';
+        putTwoDigits(chars, 3, EpochDayCalendar.dayOfMonth(epochDay));
+        chars[5] = '/';
+        putTwoDigits(chars, 6, year);
+        return new String(chars);
+    }
+
+    private static int twoDigits(String text, int index) {
+        char tens = text.charAt(index);
+        char units = text.charAt(index + 1);
+        if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+            throw new DateTimeException("Text '" + text + "' could not be parsed at index " + index);
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+
+    private static void putTwoDigits(char[] chars, int index, int value) {
+        chars[index] = (char) ('0' + value / 10);
+        chars[index + 1] = (char) ('0' + value % 10);
+    }
+}
@@ -0,0 +1,135 @@
+package example.utils;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Utility class for working with dates as primitive {@code int} epoch days (days since 1970-01-01,
+ * the same numbering as {@link LocalDate#toEpochDay()}) on the pricing hot path.
+ *
+ * An epoch day needs no allocation to store, step or compare, and walking a rental period is just
+ * incrementing an {@code int}. Calendar fields are derived from lookup tables that cover a single
+ * 400-year Gregorian cycle. The cycle repeats exactly, 146,097 days long, so the tables serve every
+ * proleptic Gregorian year. Day of week needs no table, because it is the epoch day modulo 7.
+ *
+ * Dates should be converted to and from {@link LocalDate} only at the edges of the application,
+ * such as parsing input and formatting receipts.
+ */
+public class EpochDayCalendar {
+    private static final int YEARS_PER_CYCLE = 400;
+    private static final int DAYS_PER_CYCLE = 146_097;
+    // the epoch day of 0000-01-01, which starts a 400-year cycle
+    private static final int CYCLE_START_EPOCH_DAY = -719_528;
+    private static final int[] MONTH_LENGTHS = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    // day of the cycle on which each year of the cycle starts; the extra entry closes the last year
+    private static final int[] YEAR_START = new int[YEARS_PER_CYCLE + 1];
+    private static final boolean[] LEAP_YEAR = new boolean[YEARS_PER_CYCLE];
+    // day of the year on which each month starts, for common years [0] and leap years [1]
+    private static final int[][] MONTH_START = new int[2][13];
+    // month for each day of the year, for common years [0] and leap years [1]
+    private static final byte[][] MONTH_OF_DAY_OF_YEAR = {new byte[365], new byte[366]};
+
+    static {
+        for (int year = 0; year < YEARS_PER_CYCLE; year++) {
+            LEAP_YEAR[year] = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            YEAR_START[year + 1] = YEAR_START[year] + (LEAP_YEAR[year] ? 366 : 365);
+        }
+        for (int leap = 0; leap <= 1; leap++) {
+            for (int month = 1; month <= 12; month++) {
+                int length = MONTH_LENGTHS[month - 1] + (leap == 1 && month == 2 ? 1 : 0);
+                MONTH_START[leap][month] = MONTH_START[leap][month - 1] + length;
+                for (int dayOfYear = MONTH_START[leap][month - 1]; dayOfYear < MONTH_START[leap][month]; dayOfYear++) {
+                    MONTH_OF_DAY_OF_YEAR[leap][dayOfYear] = (byte) month;
+                }
+            }
+        }
+    }
+
+    public static int of(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    /**
+     * @param year the proleptic year
+     * @param month the month, from 1 (January) to 12 (December)
+     * @param dayOfMonth the day of the month, from 1 to the length of the month
+     * @return the epoch day of the date
+     * @throws DateTimeException if the month or day of month is not valid for the year
+     */
+    public static int of(int year, int month, int dayOfMonth) {
+        int cycle = Math.floorDiv(year, YEARS_PER_CYCLE);
+        int yearOfCycle = year - cycle * YEARS_PER_CYCLE;
+        int[] monthStart = MONTH_START[LEAP_YEAR[yearOfCycle] ? 1 : 0];
+        if (month < 1 || month > 12 || dayOfMonth < 1 || dayOfMonth > monthStart[month] - monthStart[month - 1]) {
+            throw new DateTimeException("Invalid date: " + year + "-" + month + "-" + dayOfMonth);
+        }
+        return CYCLE_START_EPOCH_DAY + cycle * DAYS_PER_CYCLE + YEAR_START[yearOfCycle] + monthStart[month - 1] + dayOfMonth - 1;
+    }
+
+    /**
+     * @param year the proleptic year
+     * @param month the month, from 1 (January) to 12 (December)
+     * @return the number of days in the month
+     */
+    public static int lengthOfMonth(int year, int month) {
+        int[] monthStart = MONTH_START[LEAP_YEAR[Math.floorMod(year, YEARS_PER_CYCLE)] ? 1 : 0];
+        return monthStart[month] - monthStart[month - 1];
+    }
+
+    public static LocalDate toLocalDate(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    public static int year(int epochDay) {
+        // counted in long, as days since the start of year 0 overflow near the end of the int range
+        long days = (long) epochDay - CYCLE_START_EPOCH_DAY;
+        int cycle = (int) Math.floorDiv(days, DAYS_PER_CYCLE);
+        return cycle * YEARS_PER_CYCLE + yearOfCycle((int) (days - (long) cycle * DAYS_PER_CYCLE));
+    }
+
+    /**
+     * @return the month of the epoch day, from 1 (January) to 12 (December)
+     */
+    public static int month(int epochDay) {
+        int dayOfCycle = Math.floorMod((long) epochDay - CYCLE_START_EPOCH_DAY, DAYS_PER_CYCLE);
+        int yearOfCycle = yearOfCycle(dayOfCycle);
+        return MONTH_OF_DAY_OF_YEAR[LEAP_YEAR[yearOfCycle] ? 1 : 0][dayOfCycle - YEAR_START[yearOfCycle]];
+    }
+
+    public static int dayOfMonth(int epochDay) {
+        int dayOfCycle = Math.floorMod((long) epochDay - CYCLE_START_EPOCH_DAY, DAYS_PER_CYCLE);
+        int yearOfCycle = yearOfCycle(dayOfCycle);
+        int leap = LEAP_YEAR[yearOfCycle] ? 1 : 0;
+        int dayOfYear = dayOfCycle - YEAR_START[yearOfCycle];
+        return dayOfYear - MONTH_START[leap][MONTH_OF_DAY_OF_YEAR[leap][dayOfYear] - 1] + 1;
+    }
+
+    /**
+     * @return the ISO day of week of the epoch day, from 1 (Monday) to 7 (Sunday), matching
+     *         {@link java.time.DayOfWeek#getValue()}
+     */
+    public static int dayOfWeek(int epochDay) {
+        // 1970-01-01 was a Thursday
+        return Math.floorMod(epochDay + 3, 7) + 1;
+    }
+
+    /**
+     * @param dayOfWeek an ISO day of week, from 1 (Monday) to 7 (Sunday)
+     * @return whether the day of week is Saturday or Sunday
+     */
+    public static boolean isWeekend(int dayOfWeek) {
+        return dayOfWeek >= 6;
+    }
+
+    private static int yearOfCycle(int dayOfCycle) {
+        // estimate from the average year length, then correct by at most a year either way
+        int year = (int) ((long) dayOfCycle * YEARS_PER_CYCLE / DAYS_PER_CYCLE);
+        if (YEAR_START[year] > dayOfCycle) {
+            year--;
+        } else if (YEAR_START[year + 1] <= dayOfCycle) {
+            year++;
+        }
+        return year;
+    }
+}
@@ -24,7 +24,7 @@ public class Receipt {
     private final BigDecimal finalChargeCents;
 
     public Receipt(RentalAgreement rentalAgreement) {
-        chargeDays = CalendarHelper.calculateChargeDays(rentalAgreement.getCheckOutDate(), rentalAgreement.getRentalDays(), rentalAgreement.getCharge());
+        chargeDays = CalendarHelper.calculateChargeDays(rentalAgreement.getCheckOutEpochDay(), rentalAgreement.getRentalDays(), rentalAgreement.getCharge());
         preDiscountChargeCents = chargeDays * rentalAgreement.getDailyRentalChargeInCents();
         discountPercentAsDecimal = rentalAgreement.getDiscountPercentage().divide(BigDecimal.valueOf(100L));
         discountCents = discountPercentAsDecimal.multiply(BigDecimal.valueOf(preDiscountChargeCents)).setScale(0, RoundingMode.HALF_UP);
@@ -0,0 +1,79 @@
+package example.utils;
+
+import example.domain.RentalAgreement;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Represents the settlement of a rental agreement when the tool is returned. Like a {@link Receipt},
+ * charge days follow the weekday, weekend and holiday rules of the agreement's charge, with the
+ * checkout day itself not charged and the return day charged.
+ *
+ * The settlement is split into two parts:
+ * - The rental charge covers the days of the agreed rental period the tool was actually out. A tool
+ *   returned early is only charged for the days it was out; the agreed discount applies as on the
+ *   receipt.
+ * - The late fee covers the chargeable days after the due date, up to and including the return date,
+ *   at the full daily rate with no discount.
+ *
+ * The late charge days and fee can either be computed here from the return date, or be supplied from
+ * the running totals kept by the nightly late-fee accrual.
+ */
+@Getter
+public class Settlement {
+    private final int returnEpochDay;
+    private final int actualRentalDays;
+    private final int rentalChargeDays;
+    private final int preDiscountChargeCents;
+    private final BigDecimal discountCents;
+    private final int lateChargeDays;
+    private final long lateFeeCents;
+    private final BigDecimal finalChargeCents;
+
+    public Settlement(RentalAgreement rentalAgreement, int returnEpochDay) {
+        this(rentalAgreement, returnEpochDay, calculateLateChargeDays(rentalAgreement, returnEpochDay));
+    }
+
+    private Settlement(RentalAgreement rentalAgreement, int returnEpochDay, int lateChargeDays) {
+        this(rentalAgreement, returnEpochDay, lateChargeDays,
+                (long) lateChargeDays * rentalAgreement.getDailyRentalChargeInCents());
+    }
+
+    /**
+     * @param rentalAgreement the agreement being settled
+     * @param returnEpochDay the date the tool was returned, as an epoch day
+     * @param lateChargeDays the chargeable days after the due date, up to and including the return date
+     * @param lateFeeCents the late fee for those days
+     */
+    public Settlement(RentalAgreement rentalAgreement, int returnEpochDay, int lateChargeDays, long lateFeeCents) {
+        int checkOutEpochDay = rentalAgreement.getCheckOutEpochDay();
+        if (returnEpochDay < checkOutEpochDay) {
+            throw new IllegalArgumentException("The return date must not be before the check out date");
+        }
+        this.returnEpochDay = returnEpochDay;
+        actualRentalDays = returnEpochDay - checkOutEpochDay;
+        int daysWithinAgreement = Math.min(returnEpochDay, rentalAgreement.getDueEpochDay()) - checkOutEpochDay;
+        rentalChargeDays = CalendarHelper.calculateChargeDays(checkOutEpochDay, daysWithinAgreement, rentalAgreement.getCharge());
+        preDiscountChargeCents = rentalChargeDays * rentalAgreement.getDailyRentalChargeInCents();
+        BigDecimal discountPercentAsDecimal = rentalAgreement.getDiscountPercentage().divide(BigDecimal.valueOf(100L));
+        discountCents = discountPercentAsDecimal.multiply(BigDecimal.valueOf(preDiscountChargeCents)).setScale(0, RoundingMode.HALF_UP);
+        this.lateChargeDays = lateChargeDays;
+        this.lateFeeCents = lateFeeCents;
+        finalChargeCents = BigDecimal.valueOf(preDiscountChargeCents).subtract(discountCents).add(BigDecimal.valueOf(lateFeeCents));
+    }
+
+    /**
+     * Calculates the chargeable days between the due date (exclusive) and the return date (inclusive).
+     *
+     * @return the late charge days, or 0 if the tool was returned on or before the due date
+     */
+    public static int calculateLateChargeDays(RentalAgreement rentalAgreement, int returnEpochDay) {
+        int dueEpochDay = rentalAgreement.getDueEpochDay();
+        if (returnEpochDay <= dueEpochDay) {
+            return 0;
+        }
+        return CalendarHelper.calculateChargeDays(dueEpochDay, returnEpochDay - dueEpochDay, rentalAgreement.getCharge());
+    }
+}
@@ -0,0 +1,18 @@
+package example.verification;
+
+import example.domain.Charge;
+import example.utils.CalendarHelper;
+
+import java.time.LocalDate;
+
+/**
+ * A pluggable implementation of the charge-day calculation, with the same contract as
+ * {@link CalendarHelper#calculateChargeDays(LocalDate, int, Charge)}. Implementations are compared
+ * against the {@link ReferenceChargeDayCalculator} by the {@link ChargeDayVerifier}.
+ *
+ * Implementations that are loaded by class name must have a public no-argument constructor.
+ */
+@FunctionalInterface
+public interface ChargeDayCalculator {
+    int calculateChargeDays(LocalDate checkoutDate, int rentalDays, Charge charge);
+}
@@ -0,0 +1,214 @@
+package example.verification;
+
+import example.domain.Charge;
+import example.utils.CalendarHelper;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Exhaustively compares a {@link ChargeDayCalculator} against the {@link ReferenceChargeDayCalculator}.
+ *
+ * Every checkout date in the verified range is combined with every rental length and all eight
+ * combinations of the weekday, weekend and holiday {@link Charge} flags. A full 400-year Gregorian
+ * cycle repeats exactly, weekdays included, so verifying one cycle covers every calendar situation
+ * the candidate can meet, including all holiday observance shifts at year boundaries.
+ *
+ * Checkout dates are split into chunks which are verified in parallel on the common fork-join pool.
+ * The verifier reports the first divergence in checkout date, rental length and flag order, no matter
+ * which chunk finds it, so repeated runs report the same divergence.
+ */
+public class ChargeDayVerifier {
+    /**
+     * Rental lengths verified in addition to every length from one day up to the configured maximum.
+     * They cover long rentals that span one or more year boundaries.
+     */
+    public static final int[] LONG_RENTAL_DAYS = {90, 180, 364, 365, 366, 400, 730, 731, 760};
+    private static final int CHUNK_DAYS = 512;
+
+    private final ChargeDayCalculator candidate;
+    private final List<Charge> charges = new ArrayList<>();
+
+    public ChargeDayVerifier(ChargeDayCalculator candidate) {
+        this.candidate = candidate;
+        for (int flags = 0; flags < 8; flags++) {
+            charges.add(Charge.builder()
+                    .isChargedOnWeekday((flags & 4) != 0)
+                    .isChargedOnWeekend((flags & 2) != 0)
+                    .isChargedOnHoliday((flags & 1) != 0)
+                    .build());
+        }
+    }
+
+    /**
+     * Verifies every checkout date from {@code firstCheckoutDate} for the given number of days.
+     *
+     * @param firstCheckoutDate the first checkout date to verify
+     * @param checkoutDays the number of consecutive checkout dates to verify
+     * @param rentalDays the rental lengths to verify for each checkout date
+     * @return the outcome of the verification
+     */
+    public Result verify(LocalDate firstCheckoutDate, int checkoutDays, int[] rentalDays) {
+        int longestRental = IntStream.of(rentalDays).max().orElse(0);
+        ReferenceChargeDayCalculator reference = new ReferenceChargeDayCalculator(
+                firstCheckoutDate, firstCheckoutDate.plusDays(checkoutDays + (long) longestRental));
+
+        LongAdder checks = new LongAdder();
+        AtomicReference<Divergence> firstDivergence = new AtomicReference<>();
+        long start = System.nanoTime();
+
+        int chunkCount = (checkoutDays + CHUNK_DAYS - 1) / CHUNK_DAYS;
+        IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+            int from = chunk * CHUNK_DAYS;
+            int to = Math.min(checkoutDays, from + CHUNK_DAYS);
+            for (int day = from; day < to; day++) {
+                Divergence earliest = firstDivergence.get();
+                if (earliest != null && earliest.getCheckoutDay() < day) {
+                    // a later checkout date cannot produce an earlier divergence
+                    return;
+                }
+                Divergence divergence = verifyCheckoutDate(reference, firstCheckoutDate.plusDays(day), day, rentalDays, checks);
+                if (divergence != null) {
+                    firstDivergence.accumulateAndGet(divergence,
+                            (current, found) -> current == null || found.getCheckoutDay() < current.getCheckoutDay() ? found : current);
+                    return;
+                }
+            }
+        });
+
+        return new Result(checks.sum(), System.nanoTime() - start, firstDivergence.get());
+    }
+
+    private Divergence verifyCheckoutDate(ReferenceChargeDayCalculator reference, LocalDate checkoutDate, int checkoutDay,
+                                          int[] rentalDays, LongAdder checks) {
+        int verified = 0;
+        try {
+            for (int days : rentalDays) {
+                for (Charge charge : charges) {
+                    int expected = reference.calculateChargeDays(checkoutDate, days, charge);
+                    int actual;
+                    try {
+                        actual = candidate.calculateChargeDays(checkoutDate, days, charge);
+                    } catch (RuntimeException e) {
+                        return new Divergence(checkoutDay, checkoutDate, days, charge, expected, e.toString());
+                    }
+                    if (actual != expected) {
+                        return new Divergence(checkoutDay, checkoutDate, days, charge, expected, Integer.toString(actual));
+                    }
+                    verified++;
+                }
+            }
+            return null;
+        } finally {
+            checks.add(verified);
+        }
+    }
+
+    /**
+     * @param maxRentalDays verify every rental length from one day up to this many days
+     * @return those lengths followed by any of the {@link #LONG_RENTAL_DAYS} that are longer
+     */
+    public static int[] rentalDays(int maxRentalDays) {
+        return IntStream.concat(
+                IntStream.rangeClosed(1, maxRentalDays),
+                IntStream.of(LONG_RENTAL_DAYS).filter(days -> days > maxRentalDays)
+        ).toArray();
+    }
+
+    /**
+     * A checkout date, rental length and charge for which the candidate disagrees with the reference.
+     */
+    @Getter
+    public static class Divergence {
+        private final int checkoutDay;
+        private final LocalDate checkoutDate;
+        private final int rentalDays;
+        private final Charge charge;
+        private final int expected;
+        private final String actual;
+
+        Divergence(int checkoutDay, LocalDate checkoutDate, int rentalDays, Charge charge, int expected, String actual) {
+            this.checkoutDay = checkoutDay;
+            this.checkoutDate = checkoutDate;
+            this.rentalDays = rentalDays;
+            this.charge = charge;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("checkout %s for %d days (weekday %b, weekend %b, holiday %b): expected %d charge days but got %s",
+                    checkoutDate, rentalDays, charge.isChargedOnWeekday(), charge.isChargedOnWeekend(), charge.isChargedOnHoliday(),
+                    expected, actual);
+        }
+    }
+
+    /**
+     * The outcome of a verification run.
+     */
+    @Getter
+    public static class Result {
+        private final long checks;
+        private final long elapsedNanos;
+        private final Divergence firstDivergence;
+
+        Result(long checks, long elapsedNanos, Divergence firstDivergence) {
+            this.checks = checks;
+            this.elapsedNanos = elapsedNanos;
+            this.firstDivergence = firstDivergence;
+        }
+
+        public boolean isSuccessful() {
+            return firstDivergence == null;
+        }
+
+        public double getChecksPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : checks * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+
+    /**
+     * Verifies a candidate implementation and prints the throughput and the first divergence, if any.
+     * Exits with status 1 when a divergence is found.
+     *
+     * @param args args[0] - the class name of the candidate {@link ChargeDayCalculator}, or
+     *                       {@code CalendarHelper} for the production implementation (the default);
+     *             args[1] - the first checkout year (default 2000);
+     *             args[2] - the number of years to verify (default 400, a full Gregorian cycle);
+     *             args[3] - verify every rental length up to this many days (default 62)
+     */
+    public static void main(String[] args) throws ReflectiveOperationException {
+        String candidateName = args.length > 0 ? args[0] : CalendarHelper.class.getSimpleName();
+        int firstYear = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int years = args.length > 2 ? Integer.parseInt(args[2]) : 400;
+        int maxRentalDays = args.length > 3 ? Integer.parseInt(args[3]) : 62;
+
+        ChargeDayCalculator candidate = CalendarHelper.class.getSimpleName().equals(candidateName)
+                ? CalendarHelper::calculateChargeDays
+                : (ChargeDayCalculator) Class.forName(candidateName).getDeclaredConstructor().newInstance();
+
+        LocalDate firstCheckoutDate = LocalDate.of(firstYear, 1, 1);
+        int checkoutDays = Math.toIntExact(firstCheckoutDate.plusYears(years).toEpochDay() - firstCheckoutDate.toEpochDay());
+        int[] rentalDays = rentalDays(maxRentalDays);
+
+        System.out.printf("verifying %s: %d checkout dates from %s, %d rental lengths, 8 charge combinations, %d threads%n",
+                candidateName, checkoutDays, firstCheckoutDate, rentalDays.length, Runtime.getRuntime().availableProcessors());
+        Result result = new ChargeDayVerifier(candidate).verify(firstCheckoutDate, checkoutDays, rentalDays);
+        System.out.printf("%d checks in %d ms (%.0f checks/s)%n",
+                result.getChecks(), TimeUnit.NANOSECONDS.toMillis(result.getElapsedNanos()), result.getChecksPerSecond());
+
+        if (result.isSuccessful()) {
+            System.out.println("no divergence from the reference");
+        } else {
+            System.out.println("first divergence: " + result.getFirstDivergence());
+            System.exit(1);
+        }
+    }
+}
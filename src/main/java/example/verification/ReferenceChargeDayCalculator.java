@@ -0,0 +1,152 @@
+package example.verification;
+
+import example.domain.Charge;
+import example.domain.Holiday;
+import example.repository.HolidayRepository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * The reference oracle for charge-day calculations. It is written to be obviously correct rather
+ * than fast, and deliberately shares no code with the production implementation:
+ * - each day of the rental period is classified on its own, as a weekday or weekend day and as an
+ *   observed holiday or not;
+ * - a day is an observed holiday if any holiday, in the day's year or either neighbouring year,
+ *   is observed on that exact day, so observance shifts across a year boundary are handled;
+ * - nth-weekday holidays are resolved with {@link TemporalAdjusters#dayOfWeekInMonth(int, DayOfWeek)}.
+ *
+ * To keep exhaustive verification affordable, the classification of every day in a fixed window is
+ * computed once, day by day, and kept as running counts per class. A query inside the window is then
+ * a difference of two running counts; a query outside it falls back to classifying each day directly.
+ */
+public class ReferenceChargeDayCalculator implements ChargeDayCalculator {
+    private static final int WEEKEND = 1;
+    private static final int HOLIDAY = 2;
+    private static final int CLASS_COUNT = 4;
+
+    private final List<Holiday> holidays = new HolidayRepository().getHolidays();
+    private final long firstEpochDay;
+    private final long lastEpochDay;
+    // countsBefore[dayClass][i] is the number of days of that class in [firstEpochDay, firstEpochDay + i)
+    private final int[][] countsBefore;
+
+    /**
+     * Creates an oracle without a precomputed window; every query classifies each day directly.
+     */
+    public ReferenceChargeDayCalculator() {
+        this.firstEpochDay = 0L;
+        this.lastEpochDay = -1L;
+        this.countsBefore = new int[CLASS_COUNT][1];
+    }
+
+    /**
+     * Creates an oracle that precomputes the classification of every day from {@code first} to
+     * {@code last}, inclusive.
+     */
+    public ReferenceChargeDayCalculator(LocalDate first, LocalDate last) {
+        this.firstEpochDay = first.toEpochDay();
+        this.lastEpochDay = last.toEpochDay();
+        int dayCount = Math.toIntExact(lastEpochDay - firstEpochDay + 1);
+        this.countsBefore = new int[CLASS_COUNT][dayCount + 1];
+
+        LocalDate date = first;
+        for (int i = 0; i < dayCount; i++) {
+            int dayClass = classify(date);
+            for (int c = 0; c < CLASS_COUNT; c++) {
+                countsBefore[c][i + 1] = countsBefore[c][i] + (c == dayClass ? 1 : 0);
+            }
+            date = date.plusDays(1);
+        }
+    }
+
+    @Override
+    public int calculateChargeDays(LocalDate checkoutDate, int rentalDays, Charge charge) {
+        if (rentalDays <= 0) {
+            return 0;
+        }
+        long firstDay = checkoutDate.toEpochDay() + 1;
+        long lastDay = checkoutDate.toEpochDay() + rentalDays;
+        if (firstDay < firstEpochDay || lastDay > lastEpochDay) {
+            return calculateDayByDay(checkoutDate, rentalDays, charge);
+        }
+
+        int from = (int) (firstDay - firstEpochDay);
+        int to = (int) (lastDay - firstEpochDay + 1);
+        int chargeDays = 0;
+        for (int dayClass = 0; dayClass < CLASS_COUNT; dayClass++) {
+            if (isCharged(dayClass, charge)) {
+                chargeDays += countsBefore[dayClass][to] - countsBefore[dayClass][from];
+            }
+        }
+        return chargeDays;
+    }
+
+    private int calculateDayByDay(LocalDate checkoutDate, int rentalDays, Charge charge) {
+        int chargeDays = 0;
+        for (int day = 1; day <= rentalDays; day++) {
+            if (isCharged(classify(checkoutDate.plusDays(day)), charge)) {
+                chargeDays++;
+            }
+        }
+        return chargeDays;
+    }
+
+    /**
+     * A day is charged only if every rule that applies to it allows a charge: a holiday that falls on
+     * a weekday must be charged both as a weekday and as a holiday.
+     */
+    private static boolean isCharged(int dayClass, Charge charge) {
+        boolean weekend = (dayClass & WEEKEND) != 0;
+        boolean holiday = (dayClass & HOLIDAY) != 0;
+        return (weekend ? charge.isChargedOnWeekend() : charge.isChargedOnWeekday())
+                && (!holiday || charge.isChargedOnHoliday());
+    }
+
+    private int classify(LocalDate date) {
+        DayOfWeek dayOfWeek = date.getDayOfWeek();
+        int dayClass = dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY ? WEEKEND : 0;
+        return isObservedHoliday(date) ? dayClass | HOLIDAY : dayClass;
+    }
+
+    private boolean isObservedHoliday(LocalDate date) {
+        for (Holiday holiday : holidays) {
+            for (int year = date.getYear() - 1; year <= date.getYear() + 1; year++) {
+                LocalDate actual = actualDate(holiday, year);
+                if (actual != null && date.equals(observedDate(actual, holiday.isObservedOnClosestWeekday()))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static LocalDate actualDate(Holiday holiday, int year) {
+        switch (holiday.getType()) {
+            case FIXED_DAY:
+                if (holiday.getDayOfMonth() > holiday.getMonth().length(Year.isLeap(year))) {
+                    return null;
+                }
+                return LocalDate.of(year, holiday.getMonth(), holiday.getDayOfMonth());
+            case NTH_WEEKDAY:
+                LocalDate date = LocalDate.of(year, holiday.getMonth(), 1)
+                        .with(TemporalAdjusters.dayOfWeekInMonth(holiday.getNthOfMonth(), holiday.getDayOfWeek()));
+                return date.getMonth() == holiday.getMonth() ? date : null;
+            default:
+                throw new IllegalArgumentException("Unimplemented holiday type: " + holiday.getType());
+        }
+    }
+
+    private static LocalDate observedDate(LocalDate actual, boolean observedOnClosestWeekday) {
+        if (observedOnClosestWeekday && actual.getDayOfWeek() == DayOfWeek.SATURDAY) {
+            return actual.minusDays(1);
+        }
+        if (observedOnClosestWeekday && actual.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            return actual.plusDays(1);
+        }
+        return actual;
+    }
+}
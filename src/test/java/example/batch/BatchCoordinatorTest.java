@@ -0,0 +1,114 @@
+package example.batch;
+
+import example.service.CheckoutService;
+import example.service.ReceiptPrinterService;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchCoordinatorTest {
+    private final PrintStream progress = new PrintStream(OutputStream.nullOutputStream());
+
+    private final List<String> requestLines = List.of(
+            "JAKR 5 101 09/03/15",
+            "LADW 3 10 07/02/20",
+            "CHNS 5 25 07/02/15",
+            "JAKD 6 0 09/03/15",
+            "JAKR 9 0 07/02/15",
+            "JAKR 4 50 07/02/20",
+            "XXXX 4 50 07/02/20"
+    );
+
+    @Test
+    void testShardAssignmentIsDeterministicByToolCode() {
+        ShardPartitioner partitioner = new ShardPartitioner(3);
+
+        assertEquals(partitioner.shardFor("JAKR 5 10 09/03/15"), partitioner.shardFor("  JAKR 9 0 07/02/15"));
+        assertEquals(partitioner.shardForToolCode("LADW"), partitioner.shardFor("LADW 3 10 07/02/20"));
+        assertEquals(2, partitioner.shardForToolCode("LADW"));
+    }
+
+    @Test
+    void testResultsAreMergedInInputOrderAcrossWorkers() throws IOException {
+        try (BatchWorker first = new BatchWorker(0); BatchWorker second = new BatchWorker(0)) {
+            first.start();
+            second.start();
+
+            BatchCoordinator coordinator = BatchCoordinator.attach(List.of(
+                    new InetSocketAddress("localhost", first.getPort()),
+                    new InetSocketAddress("localhost", second.getPort())), progress);
+            List<BatchResult> results = coordinator.price(requestLines);
+
+            CheckoutService checkoutService = new CheckoutService();
+            ReceiptPrinterService receiptPrinterService = new ReceiptPrinterService();
+            ShardPartitioner partitioner = new ShardPartitioner(2);
+            assertEquals(requestLines.size(), results.size());
+            for (int i = 0; i < requestLines.size(); i++) {
+                BatchResult result = results.get(i);
+                assertEquals(i, result.getIndex());
+                assertEquals(partitioner.shardFor(requestLines.get(i)), result.getShard());
+                if (i == 0 || i == requestLines.size() - 1) {
+                    assertFalse(result.isSuccessful());
+                } else {
+                    assertTrue(result.isSuccessful());
+                    String expected = receiptPrinterService.renderReceipt(
+                            checkoutService.createRentalAgreement(requestLines.get(i).split(" ")));
+                    assertEquals(expected, result.getText());
+                }
+            }
+            assertEquals("The discount percentage must be between 0 and 100", results.get(0).getText());
+        }
+    }
+
+    @Test
+    void testRequestThatFailsToRenderDoesNotAbortTheBatch() throws IOException {
+        // passes validation, but the due date rolls past the last year the receipt can print
+        List<String> lines = List.of("LADW 3 10 07/02/20", "LADW 3 10 12/30/99", "LADW 4 0 07/02/20");
+        try (BatchWorker worker = new BatchWorker(0)) {
+            worker.start();
+
+            BatchCoordinator coordinator = BatchCoordinator.attach(List.of(
+                    new InetSocketAddress("localhost", worker.getPort())), progress);
+            List<BatchResult> results = coordinator.price(lines);
+
+            assertEquals(lines.size(), results.size());
+            assertTrue(results.get(0).isSuccessful());
+            assertFalse(results.get(1).isSuccessful());
+            assertTrue(results.get(1).getText().contains("DateTimeException"), results.get(1).getText());
+            assertTrue(results.get(2).isSuccessful());
+        }
+    }
+
+    @Test
+    void testLaunchedWorkerExitsWhenItsStandardInputCloses() throws Exception {
+        Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                BatchWorker.class.getName(), "0", BatchWorker.EXIT_ON_STDIN_CLOSE)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            assertTrue(reader.readLine().startsWith(BatchWorker.READY_MESSAGE));
+
+            // what the operating system does to the pipe when the coordinator dies
+            process.getOutputStream().close();
+
+            assertTrue(process.waitFor(10, TimeUnit.SECONDS));
+        } finally {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package example.load;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyRecorderTest {
+    @Test
+    void testNearestRankPercentile() {
+        long[] sorted = new long[1000];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i + 1;
+        }
+
+        assertEquals(500L, LatencyRecorder.percentile(sorted, 50.0));
+        assertEquals(990L, LatencyRecorder.percentile(sorted, 99.0));
+        assertEquals(999L, LatencyRecorder.percentile(sorted, 99.9));
+        assertEquals(1000L, LatencyRecorder.percentile(sorted, 100.0));
+    }
+
+    @Test
+    void testRecordedLatenciesAreSorted() {
+        LatencyRecorder recorder = new LatencyRecorder(4);
+        recorder.record(0, 30L);
+        recorder.record(1, 10L);
+        recorder.record(2, 40L);
+        recorder.record(3, 20L);
+
+        assertArrayEquals(new long[]{10L, 20L, 30L, 40L}, recorder.sorted());
+    }
+}
@@ -0,0 +1,41 @@
+package example.load;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadTestHarnessTest {
+    @Test
+    void testRunPricesEveryRequestAndCorrectsForCoordinatedOmission() throws InterruptedException {
+        String[][] requests = new WorkloadGenerator(3L, 15, 25).nextRequests(200);
+        requests[0] = new String[]{"XXXX", "4", "50", "07/02/20"};
+
+        LoadTestHarness.RunResult result = new LoadTestHarness(2000, 2).run(requests);
+
+        assertEquals(200, result.getRequests());
+        assertEquals(1, result.getFailures());
+        // latency counts from the intended start, which is never after the request actually started
+        for (double percentile : new double[]{50.0, 90.0, 99.0, 100.0}) {
+            assertTrue(result.getCorrectedLatencyNanos(percentile) >= result.getServiceTimeNanos(percentile),
+                    "p" + percentile);
+        }
+        assertTrue(result.getServiceTimeNanos(50.0) > 0);
+    }
+
+    @Test
+    void testRunCountsRequestsThatFailToRenderAsFailures() throws InterruptedException {
+        String[][] requests = new String[10][];
+        for (int i = 0; i < requests.length; i++) {
+            // the due date falls in 2100, which the two-digit year format cannot render
+            requests[i] = new String[]{"LADW", "3", "0", "12/30/99"};
+        }
+
+        LoadTestHarness.RunResult result = new LoadTestHarness(2000, 1).run(requests);
+
+        assertEquals(10, result.getRequests());
+        assertEquals(10, result.getFailures());
+        assertTrue(result.getServiceTimeNanos(0.0) > 0);
+        assertTrue(result.getCorrectedLatencyNanos(0.0) > 0);
+    }
+}
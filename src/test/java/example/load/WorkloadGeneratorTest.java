@@ -0,0 +1,45 @@
+package example.load;
+
+import example.domain.RentalAgreement;
+import example.service.CheckoutService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkloadGeneratorTest {
+    @Test
+    void testSameSeedGeneratesSameWorkload() {
+        String[][] first = new WorkloadGenerator(42L, 15, 25).nextRequests(1000);
+        String[][] second = new WorkloadGenerator(42L, 15, 25).nextRequests(1000);
+
+        for (int i = 0; i < first.length; i++) {
+            assertArrayEquals(first[i], second[i]);
+        }
+    }
+
+    @Test
+    void testGeneratedRequestsAreValidAndClusterAroundHolidays() {
+        CheckoutService checkoutService = new CheckoutService();
+        String[][] requests = new WorkloadGenerator(7L, 20, 20).nextRequests(10_000);
+
+        int nearHoliday = 0;
+        for (String[] request : requests) {
+            RentalAgreement rentalAgreement = checkoutService.createRentalAgreement(request);
+            LocalDate checkoutDate = rentalAgreement.getCheckOutDate();
+            assertEquals(20, checkoutDate.getYear());
+            long daysToJuly4 = Math.abs(ChronoUnit.DAYS.between(checkoutDate, LocalDate.of(20, 7, 3)));
+            long daysToLaborDay = Math.abs(ChronoUnit.DAYS.between(checkoutDate, LocalDate.of(20, 9, 7)));
+            if (Math.min(daysToJuly4, daysToLaborDay) <= 14) {
+                nearHoliday++;
+            }
+        }
+
+        // about 70% of requests cluster around a holiday, versus roughly 16% for uniform dates
+        assertTrue(nearHoliday > requests.length / 2, "only " + nearHoliday + " requests near a holiday");
+    }
+}
@@ -0,0 +1,276 @@
+package example.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncReceiptWriterTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testBlockingWriterWritesEveryReceiptInOrderPerThread() throws Exception {
+        Path output = tempDir.resolve("receipts.txt");
+        int threads = 4;
+        int receiptsPerThread = 5000;
+
+        try (AsyncReceiptWriter writer = AsyncReceiptWriter.toFile(output, AsyncReceiptWriter.BackPressurePolicy.BLOCK)) {
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                producers.add(new Thread(() -> {
+                    for (int i = 0; i < receiptsPerThread; i++) {
+                        writer.submit(thread + ":" + i + "\n");
+                    }
+                }));
+            }
+            producers.forEach(Thread::start);
+            for (Thread producer : producers) {
+                producer.join();
+            }
+        }
+
+        List<String> lines = Files.readAllLines(output);
+        assertEquals(threads * receiptsPerThread, lines.size());
+        int[] next = new int[threads];
+        for (String line : lines) {
+            String[] parts = line.split(":");
+            int thread = Integer.parseInt(parts[0]);
+            assertEquals(next[thread]++, Integer.parseInt(parts[1]));
+        }
+    }
+
+    @Test
+    void testDropPolicyDiscardsReceiptsWhileTheQueueIsFull() throws IOException {
+        StalledChannel channel = new StalledChannel();
+        AsyncReceiptWriter writer = new AsyncReceiptWriter(channel, true, 4, 1024,
+                AsyncReceiptWriter.BackPressurePolicy.DROP, tempDir);
+
+        for (int i = 0; i < 100; i++) {
+            writer.submit("receipt " + i + "\n");
+        }
+        AsyncReceiptWriter.Metrics stalled = writer.getMetrics();
+        channel.release();
+        writer.close();
+
+        AsyncReceiptWriter.Metrics metrics = writer.getMetrics();
+        assertTrue(stalled.getDropped() > 0);
+        assertTrue(stalled.getMaxQueueDepth() <= 4);
+        assertEquals(100, metrics.getSubmitted());
+        assertEquals(100, metrics.getWritten() + metrics.getDropped());
+        assertEquals(metrics.getWritten(), channel.content().lines().count());
+    }
+
+    @Test
+    void testSpillPolicyWritesEveryReceiptByClose() throws IOException {
+        StalledChannel channel = new StalledChannel();
+        AsyncReceiptWriter writer = new AsyncReceiptWriter(channel, true, 4, 1024,
+                AsyncReceiptWriter.BackPressurePolicy.SPILL, tempDir);
+
+        for (int i = 0; i < 100; i++) {
+            writer.submit("receipt " + i + "\n");
+        }
+        channel.release();
+        writer.close();
+
+        AsyncReceiptWriter.Metrics metrics = writer.getMetrics();
+        assertTrue(metrics.getSpilled() > 0);
+        assertEquals(0, metrics.getDropped());
+        assertEquals(100, metrics.getWritten() + metrics.getSpilled());
+        String[] lines = channel.content().split("\n");
+        Arrays.sort(lines);
+        assertEquals(100, lines.length);
+        assertEquals(100, Arrays.stream(lines).distinct().count());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+
+        writer.close();
+        assertEquals(100, channel.content().split("\n").length);
+    }
+
+    @Test
+    void testSpilledReceiptsAreWrittenOnceTheQueueIsEmpty() throws Exception {
+        StalledChannel channel = new StalledChannel();
+        AsyncReceiptWriter writer = new AsyncReceiptWriter(channel, true, 4, 1024,
+                AsyncReceiptWriter.BackPressurePolicy.SPILL, tempDir);
+
+        for (int i = 0; i < 100; i++) {
+            writer.submit("receipt " + i + "\n");
+        }
+        channel.release();
+        Path spillFile;
+        try (var files = Files.list(tempDir)) {
+            spillFile = files.findFirst().orElseThrow();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((channel.content().lines().count() < 100 || Files.size(spillFile) > 0) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // written before close, and the spill file was started over
+        assertEquals(100, channel.content().lines().count());
+        assertEquals(0, Files.size(spillFile));
+        writer.close();
+        assertEquals(100, channel.content().lines().count());
+    }
+
+    @Test
+    void testReceiptsThatCannotBeSpilledAreCountedAsDropped() {
+        StalledChannel channel = new StalledChannel();
+        AsyncReceiptWriter writer = new AsyncReceiptWriter(channel, true, 4, 1024,
+                AsyncReceiptWriter.BackPressurePolicy.SPILL, tempDir.resolve("missing"));
+
+        int accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (writer.submit("receipt " + i + "\n")) {
+                accepted++;
+            }
+        }
+        channel.release();
+        assertThrows(NoSuchFileException.class, writer::close);
+
+        AsyncReceiptWriter.Metrics metrics = writer.getMetrics();
+        assertTrue(metrics.getDropped() > 0);
+        assertEquals(0, metrics.getSpilled());
+        assertEquals(100, metrics.getWritten() + metrics.getDropped());
+        assertEquals(accepted, metrics.getWritten());
+        assertEquals(accepted, channel.content().lines().count());
+    }
+
+    @Test
+    void testEverySubmissionRacingWithCloseIsWrittenOrRejected() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            Path output = tempDir.resolve("racing-" + round + ".txt");
+            AsyncReceiptWriter writer = new AsyncReceiptWriter(
+                    FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE),
+                    true, 2, 1024, AsyncReceiptWriter.BackPressurePolicy.BLOCK, tempDir);
+            AtomicInteger accepted = new AtomicInteger();
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                producers.add(new Thread(() -> {
+                    try {
+                        while (true) {
+                            writer.submit("receipt\n");
+                            accepted.incrementAndGet();
+                        }
+                    } catch (IllegalStateException e) {
+                        // the writer was closed
+                    }
+                }));
+            }
+            producers.forEach(Thread::start);
+            Thread.sleep(5);
+            writer.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            assertEquals(accepted.get(), writer.getMetrics().getWritten());
+            assertEquals(accepted.get(), Files.readAllLines(output).size());
+        }
+    }
+
+    @Test
+    void testCloseWaitsForProducerBlockedOnFullQueue() throws Exception {
+        StalledChannel channel = new StalledChannel();
+        AsyncReceiptWriter writer = new AsyncReceiptWriter(channel, true, 1, 1024,
+                AsyncReceiptWriter.BackPressurePolicy.BLOCK, tempDir);
+        AtomicInteger accepted = new AtomicInteger();
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 5; i++) {
+                    writer.submit("receipt " + i + "\n");
+                    accepted.incrementAndGet();
+                }
+            } catch (IllegalStateException e) {
+                // submissions that start after close() are rejected
+            }
+        });
+        producer.start();
+        while (producer.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+
+        Thread closer = new Thread(() -> {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        closer.start();
+        channel.release();
+        producer.join();
+        closer.join();
+
+        // one receipt was being written, one was queued and one was blocked when close() was called
+        assertTrue(accepted.get() >= 3);
+        assertEquals(accepted.get(), writer.getMetrics().getWritten());
+        assertEquals(accepted.get(), channel.content().lines().count());
+    }
+
+    /**
+     * A channel whose writes wait until it is released, simulating a slow consumer.
+     */
+    private static class StalledChannel implements WritableByteChannel {
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        private boolean open = true;
+
+        void release() {
+            released.countDown();
+        }
+
+        synchronized String content() {
+            return content.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            synchronized (this) {
+                int count = source.remaining();
+                byte[] bytes = new byte[count];
+                source.get(bytes);
+                content.write(bytes, 0, count);
+                return count;
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package example.service;
+
+import example.domain.RentalAgreement;
+import example.repository.ToolRepository;
+import example.utils.EpochDayCalendar;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CheckoutServiceTest {
+    private final CheckoutService checkoutService = new CheckoutService();
+
+    @Test
+    void testLongestRentalHasItsDueDateInTheRightYear() {
+        RentalAgreement rentalAgreement = checkoutService.createRentalAgreement(
+                new String[]{"LADW", "2147483647", "0", "07/02/20"});
+
+        assertEquals(rentalAgreement.getDueDate().getYear(), EpochDayCalendar.year(rentalAgreement.getDueEpochDay()));
+    }
+
+    @Test
+    void testDueDatePastTheLastEpochDayIsRejected() {
+        RentalAgreement rentalAgreement = new RentalAgreement(new ToolRepository().getTool("LADW"),
+                Integer.MAX_VALUE, 1, BigDecimal.ZERO);
+
+        assertThrows(ArithmeticException.class, rentalAgreement::getDueEpochDay);
+    }
+}
@@ -0,0 +1,75 @@
+package example.service;
+
+import example.domain.RentalAgreement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReceiptPrinterServiceTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCentsToCurrencyStringMatchesUsCurrencyFormat() {
+        NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
+        int[] cents = {0, 1, 9, 10, 99, 100, 199, 358, 99_999, 100_000, 123_456_789, -5, -100_000,
+                Integer.MAX_VALUE, Integer.MIN_VALUE};
+
+        for (int value : cents) {
+            assertEquals(currencyFormatter.format(BigDecimal.valueOf(value, 2)),
+                    ReceiptPrinterService.centsToCurrencyString(value), Integer.toString(value));
+        }
+        for (int value = -200_000; value <= 200_000; value += 7) {
+            assertEquals(currencyFormatter.format(BigDecimal.valueOf(value, 2)),
+                    ReceiptPrinterService.centsToCurrencyString(value), Integer.toString(value));
+        }
+    }
+
+    @Test
+    void testPricingThreadsPrintReceiptsThroughTheWriter() throws Exception {
+        Path output = tempDir.resolve("receipts.txt");
+        CheckoutService checkoutService = new CheckoutService();
+        RentalAgreement[] rentalAgreements = {
+                checkoutService.createRentalAgreement(new String[]{"LADW", "3", "10", "07/02/20"}),
+                checkoutService.createRentalAgreement(new String[]{"CHNS", "5", "25", "07/02/15"}),
+                checkoutService.createRentalAgreement(new String[]{"JAKR", "9", "0", "07/02/15"})
+        };
+        int receiptsPerThread = 200;
+
+        try (AsyncReceiptWriter writer = AsyncReceiptWriter.toFile(output, AsyncReceiptWriter.BackPressurePolicy.BLOCK)) {
+            ReceiptPrinterService receiptPrinterService = new ReceiptPrinterService(writer);
+            List<Thread> pricingThreads = new ArrayList<>();
+            for (RentalAgreement rentalAgreement : rentalAgreements) {
+                pricingThreads.add(new Thread(() -> {
+                    for (int i = 0; i < receiptsPerThread; i++) {
+                        receiptPrinterService.printReceipt(rentalAgreement);
+                    }
+                }));
+            }
+            pricingThreads.forEach(Thread::start);
+            for (Thread pricingThread : pricingThreads) {
+                pricingThread.join();
+            }
+        }
+
+        ReceiptPrinterService synchronousPrinter = new ReceiptPrinterService();
+        String content = Files.readString(output);
+        long expectedLength = 0;
+        for (RentalAgreement rentalAgreement : rentalAgreements) {
+            String receipt = synchronousPrinter.renderReceipt(rentalAgreement);
+            expectedLength += (long) receipt.length() * receiptsPerThread;
+            assertEquals(receiptsPerThread, content.split(Pattern.quote(receipt), -1).length - 1);
+        }
+        assertEquals(expectedLength, content.length());
+    }
+}
@@ -0,0 +1,135 @@
+package example.service;
+
+import example.domain.OutstandingRental;
+import example.domain.RentalAgreement;
+import example.domain.Tool;
+import example.repository.OutstandingRentalRepository;
+import example.repository.ToolRepository;
+import example.utils.Settlement;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReturnServiceTest {
+    private final ToolRepository toolRepository = new ToolRepository();
+
+    @Test
+    void testNightlyAccrualMatchesLateFeesComputedFromScratch() {
+        OutstandingRentalRepository repository = new OutstandingRentalRepository();
+        ReturnService returnService = new ReturnService(repository);
+        List<OutstandingRental> rentals = new ArrayList<>();
+        LocalDate firstCheckout = LocalDate.of(2023, 12, 20);
+        for (String toolCode : new String[]{"CHNS", "LADW", "JAKD", "JAKR"}) {
+            Tool tool = toolRepository.getTool(toolCode);
+            for (int offset = 0; offset < 40; offset++) {
+                for (int rentalDays = 1; rentalDays <= 10; rentalDays += 3) {
+                    rentals.add(returnService.checkOut(new RentalAgreement(tool, rentalDays,
+                            firstCheckout.plusDays(offset), BigDecimal.valueOf(10L))));
+                }
+            }
+        }
+
+        LocalDate businessDate = firstCheckout;
+        for (int night = 0; night < 90; night++) {
+            businessDate = businessDate.plusDays(1);
+            // skip some nights so that the catch-up path is exercised as well
+            if (night % 7 != 3) {
+                returnService.accrueLateFees(businessDate);
+            }
+        }
+
+        for (OutstandingRental rental : rentals) {
+            RentalAgreement rentalAgreement = rental.getRentalAgreement();
+            LocalDate returnDate = businessDate.plusDays(2);
+            Settlement expected = new Settlement(rentalAgreement, (int) returnDate.toEpochDay());
+
+            Settlement settlement = returnService.returnTool(rental.getId(), returnDate);
+
+            assertEquals(expected.getLateChargeDays(), settlement.getLateChargeDays());
+            assertEquals(expected.getLateFeeCents(), settlement.getLateFeeCents());
+            assertEquals(expected.getFinalChargeCents(), settlement.getFinalChargeCents());
+            assertNull(repository.getRental(rental.getId()));
+        }
+    }
+
+    @Test
+    void testAccrualIsNotRepeatedForTheSameNight() {
+        ReturnService returnService = new ReturnService();
+        Tool tool = toolRepository.getTool("LADW");
+        OutstandingRental rental = returnService.checkOut(
+                new RentalAgreement(tool, 1, LocalDate.of(2024, 7, 1), BigDecimal.valueOf(0L)));
+
+        assertEquals(0, returnService.accrueLateFees(LocalDate.of(2024, 7, 2)));
+        assertEquals(1, returnService.accrueLateFees(LocalDate.of(2024, 7, 3)));
+        assertEquals(0, returnService.accrueLateFees(LocalDate.of(2024, 7, 3)));
+        assertEquals(1, returnService.accrueLateFees(LocalDate.of(2024, 7, 5)));
+
+        // 07/04 is a holiday, which ladders are not charged for
+        assertEquals(2, rental.getLateChargeDays());
+        assertEquals(398, rental.getLateFeeCents());
+    }
+
+    @Test
+    void testReturnBeforeAccruedNightsUsesActualReturnDate() {
+        ReturnService returnService = new ReturnService();
+        Tool tool = toolRepository.getTool("CHNS");
+        OutstandingRental rental = returnService.checkOut(
+                new RentalAgreement(tool, 1, LocalDate.of(2024, 7, 1), BigDecimal.valueOf(0L)));
+        returnService.accrueLateFees(LocalDate.of(2024, 7, 10));
+
+        Settlement settlement = returnService.returnTool(rental.getId(), LocalDate.of(2024, 7, 4));
+
+        assertEquals(2, settlement.getLateChargeDays());
+        assertThrows(IllegalArgumentException.class, () -> returnService.returnTool(rental.getId(), LocalDate.of(2024, 7, 4)));
+    }
+
+    @Test
+    void testConcurrentReturnsOfTheSameRentalSettleOnce() throws InterruptedException {
+        ReturnService returnService = new ReturnService();
+        Tool tool = toolRepository.getTool("JAKR");
+        for (int round = 0; round < 50; round++) {
+            OutstandingRental rental = returnService.checkOut(
+                    new RentalAgreement(tool, 3, LocalDate.of(2024, 7, 1), BigDecimal.valueOf(0L)));
+            AtomicInteger settled = new AtomicInteger();
+            List<Thread> returners = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                returners.add(new Thread(() -> {
+                    try {
+                        returnService.returnTool(rental.getId(), LocalDate.of(2024, 7, 9));
+                        settled.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        // another thread returned it first
+                    }
+                }));
+            }
+            returners.forEach(Thread::start);
+            for (Thread returner : returners) {
+                returner.join();
+            }
+
+            assertEquals(1, settled.get());
+        }
+    }
+
+    @Test
+    void testRejectedReturnLeavesRentalOutstanding() {
+        OutstandingRentalRepository repository = new OutstandingRentalRepository();
+        ReturnService returnService = new ReturnService(repository);
+        Tool tool = toolRepository.getTool("LADW");
+        OutstandingRental rental = returnService.checkOut(
+                new RentalAgreement(tool, 3, LocalDate.of(2024, 7, 1), BigDecimal.valueOf(0L)));
+
+        assertThrows(IllegalArgumentException.class, () -> returnService.returnTool(rental.getId(), LocalDate.of(2024, 6, 30)));
+
+        assertSame(rental, repository.getRental(rental.getId()));
+    }
+}
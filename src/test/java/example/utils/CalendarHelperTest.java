@@ -1,9 +1,11 @@
 package example.utils;
 
 import example.domain.Charge;
+import example.verification.ReferenceChargeDayCalculator;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -133,4 +135,28 @@ class CalendarHelperTest {
 
         assertEquals(6, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCalculateChargeDaysAcrossTheStartOfA400YearCycle() {
+        Charge charge = Charge.builder().isChargedOnWeekday(true).isChargedOnWeekend(true).isChargedOnHoliday(false).build();
+        ReferenceChargeDayCalculator reference = new ReferenceChargeDayCalculator();
+
+        // the observed holidays are kept per year of the 400-year cycle, which starts with each year divisible by 400
+        for (int year : new int[]{-1, 399, 1999, 2399}) {
+            LocalDate checkoutDate = LocalDate.of(year, 6, 1);
+            for (int rentalDays : new int[]{200, 400, 800}) {
+                assertEquals(reference.calculateChargeDays(checkoutDate, rentalDays, charge),
+                        CalendarHelper.calculateChargeDays(checkoutDate, rentalDays, charge), checkoutDate + " " + rentalDays);
+            }
+        }
+    }
+
+    @Test
+    void testDetermineHolidaysReturnsObservedHolidaysOfEveryYearTouched() {
+        // July 4, 2015 was a Saturday and was observed on Friday July 3
+        Set<LocalDate> holidays = CalendarHelper.determineHolidays(LocalDate.of(2015, 12, 1), 40);
+
+        assertEquals(Set.of(LocalDate.of(2015, 7, 3), LocalDate.of(2015, 9, 7),
+                LocalDate.of(2016, 7, 4), LocalDate.of(2016, 9, 5)), holidays);
+    }
+}
@@ -0,0 +1,61 @@
+package example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+
+import static java.time.temporal.ChronoField.DAY_OF_MONTH;
+import static java.time.temporal.ChronoField.MONTH_OF_YEAR;
+import static java.time.temporal.ChronoField.YEAR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CheckoutDateFormatTest {
+    // the formatter the CLI used before CheckoutDateFormat, kept as the reference behaviour
+    private final DateTimeFormatter formatter = new DateTimeFormatterBuilder()
+            .appendValue(MONTH_OF_YEAR, 2)
+            .appendLiteral('/')
+            .appendValue(DAY_OF_MONTH, 2)
+            .appendLiteral('/')
+            .appendValue(YEAR, 2)
+            .toFormatter();
+
+    @Test
+    void testParseMatchesDateTimeFormatterForEveryTwoDigitField() {
+        for (int year = 0; year <= 99; year++) {
+            for (int month = 0; month <= 13; month++) {
+                for (int day = 0; day <= 32; day++) {
+                    String text = String.format("%02d/%02d/%02d", month, day, year);
+                    LocalDate expected;
+                    try {
+                        expected = LocalDate.parse(text, formatter);
+                    } catch (DateTimeException e) {
+                        assertThrows(DateTimeException.class, () -> CheckoutDateFormat.parse(text), text);
+                        continue;
+                    }
+                    assertEquals(expected.toEpochDay(), CheckoutDateFormat.parse(text), text);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testMalformedTextIsRejected() {
+        for (String text : new String[]{"7/2/20", "07/02/2020", "07-02-20", "0a/02/20", "07/02/+2", " 07/02/20", ""}) {
+            assertThrows(DateTimeException.class, () -> CheckoutDateFormat.parse(text), text);
+            assertThrows(DateTimeException.class, () -> LocalDate.parse(text, formatter), text);
+        }
+    }
+
+    @Test
+    void testFormatMatchesDateTimeFormatter() {
+        for (int epochDay = EpochDayCalendar.of(0, 1, 1); epochDay <= EpochDayCalendar.of(99, 12, 31); epochDay++) {
+            assertEquals(formatter.format(LocalDate.ofEpochDay(epochDay)), CheckoutDateFormat.format(epochDay));
+        }
+        assertThrows(DateTimeException.class, () -> CheckoutDateFormat.format(EpochDayCalendar.of(100, 1, 1)));
+        assertThrows(DateTimeException.class, () -> formatter.format(LocalDate.of(100, 1, 1)));
+    }
+}
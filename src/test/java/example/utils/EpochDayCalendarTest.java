@@ -0,0 +1,61 @@
+package example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EpochDayCalendarTest {
+    @Test
+    void testFieldsMatchLocalDateAcrossSeveralCycles() {
+        // every day of a full cycle plus the neighbouring cycles, including year 0 and negative years
+        for (int epochDay = EpochDayCalendar.of(-401, 12, 1); epochDay <= EpochDayCalendar.of(2401, 1, 31); epochDay++) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+
+            assertEquals(date.getYear(), EpochDayCalendar.year(epochDay), date::toString);
+            assertEquals(date.getMonthValue(), EpochDayCalendar.month(epochDay), date::toString);
+            assertEquals(date.getDayOfMonth(), EpochDayCalendar.dayOfMonth(epochDay), date::toString);
+            assertEquals(date.getDayOfWeek().getValue(), EpochDayCalendar.dayOfWeek(epochDay), date::toString);
+            assertEquals(epochDay, EpochDayCalendar.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth()), date::toString);
+        }
+    }
+
+    @Test
+    void testConversionToAndFromLocalDate() {
+        LocalDate date = LocalDate.of(2024, 7, 4);
+
+        assertEquals(date.toEpochDay(), EpochDayCalendar.of(date));
+        assertEquals(date, EpochDayCalendar.toLocalDate(EpochDayCalendar.of(date)));
+        assertEquals(0, EpochDayCalendar.of(1970, 1, 1));
+    }
+
+    @Test
+    void testWeekend() {
+        assertTrue(EpochDayCalendar.isWeekend(EpochDayCalendar.dayOfWeek(EpochDayCalendar.of(2024, 7, 6))));
+        assertTrue(EpochDayCalendar.isWeekend(EpochDayCalendar.dayOfWeek(EpochDayCalendar.of(2024, 7, 7))));
+        assertFalse(EpochDayCalendar.isWeekend(EpochDayCalendar.dayOfWeek(EpochDayCalendar.of(2024, 7, 8))));
+    }
+
+    @Test
+    void testInvalidDatesAreRejected() {
+        assertThrows(DateTimeException.class, () -> EpochDayCalendar.of(2023, 2, 29));
+        assertThrows(DateTimeException.class, () -> EpochDayCalendar.of(2024, 13, 1));
+        assertEquals(LocalDate.of(2000, 2, 29).toEpochDay(), EpochDayCalendar.of(2000, 2, 29));
+    }
+
+    @Test
+    void testFieldsMatchLocalDateAtTheEndsOfTheIntRange() {
+        for (int epochDay : new int[]{Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE}) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+
+            assertEquals(date.getYear(), EpochDayCalendar.year(epochDay), date::toString);
+            assertEquals(date.getMonthValue(), EpochDayCalendar.month(epochDay), date::toString);
+            assertEquals(date.getDayOfMonth(), EpochDayCalendar.dayOfMonth(epochDay), date::toString);
+        }
+    }
+}
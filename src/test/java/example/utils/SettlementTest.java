@@ -0,0 +1,72 @@
+package example.utils;
+
+import example.domain.RentalAgreement;
+import example.domain.Tool;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static example.utils.Constants.JACKHAMMER;
+import static example.utils.Constants.LADDER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SettlementTest {
+    String brand = "brand";
+    String code = "FN2187";
+
+    @Test
+    void testOnTimeReturnMatchesReceipt() {
+        Tool tool = Tool.builder().brand(brand).type(LADDER).code(code).build();
+        RentalAgreement rentalAgreement = new RentalAgreement(tool, 11, LocalDate.of(2024, 7, 1), BigDecimal.valueOf(10L));
+
+        Settlement settlement = new Settlement(rentalAgreement, rentalAgreement.getDueEpochDay());
+        Receipt receipt = new Receipt(rentalAgreement);
+
+        assertEquals(11, settlement.getActualRentalDays());
+        assertEquals(receipt.getChargeDays(), settlement.getRentalChargeDays());
+        assertEquals(receipt.getDiscountCents(), settlement.getDiscountCents());
+        assertEquals(0, settlement.getLateChargeDays());
+        assertEquals(receipt.getFinalChargeCents(), settlement.getFinalChargeCents());
+    }
+
+    @Test
+    void testEarlyReturnChargesOnlyDaysOut() {
+        Tool tool = Tool.builder().brand(brand).type(LADDER).code(code).build();
+        RentalAgreement rentalAgreement = new RentalAgreement(tool, 3, LocalDate.of(2024, 7, 1), BigDecimal.valueOf(0L));
+
+        Settlement settlement = new Settlement(rentalAgreement, EpochDayCalendar.of(2024, 7, 2));
+
+        assertEquals(1, settlement.getActualRentalDays());
+        assertEquals(1, settlement.getRentalChargeDays());
+        assertEquals(0, settlement.getLateChargeDays());
+        assertEquals(BigDecimal.valueOf(199L), settlement.getFinalChargeCents());
+    }
+
+    @Test
+    void testLateReturnChargesLateDaysUndiscounted() {
+        Tool tool = Tool.builder().brand(brand).type(JACKHAMMER).code(code).build();
+        RentalAgreement rentalAgreement = new RentalAgreement(tool, 3, LocalDate.of(2024, 7, 1), BigDecimal.valueOf(10L));
+
+        Settlement settlement = new Settlement(rentalAgreement, EpochDayCalendar.of(2024, 7, 8));
+
+        // 07/04 is a holiday; the late days 07/06 and 07/07 are a weekend
+        assertEquals(7, settlement.getActualRentalDays());
+        assertEquals(2, settlement.getRentalChargeDays());
+        assertEquals(598, settlement.getPreDiscountChargeCents());
+        assertEquals(BigDecimal.valueOf(60L), settlement.getDiscountCents());
+        assertEquals(2, settlement.getLateChargeDays());
+        assertEquals(598, settlement.getLateFeeCents());
+        assertEquals(BigDecimal.valueOf(1136L), settlement.getFinalChargeCents());
+    }
+
+    @Test
+    void testReturnBeforeCheckoutIsRejected() {
+        Tool tool = Tool.builder().brand(brand).type(LADDER).code(code).build();
+        RentalAgreement rentalAgreement = new RentalAgreement(tool, 3, LocalDate.of(2024, 7, 1), BigDecimal.valueOf(0L));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new Settlement(rentalAgreement, EpochDayCalendar.of(2024, 6, 30)));
+    }
+}
@@ -0,0 +1,55 @@
+package example.verification;
+
+import example.domain.Charge;
+import example.utils.CalendarHelper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChargeDayVerifierTest {
+    @Test
+    void testReferenceAgreesWithKnownChargeDays() {
+        ReferenceChargeDayCalculator reference = new ReferenceChargeDayCalculator();
+        Charge noHolidays = Charge.builder().isChargedOnWeekday(true).isChargedOnWeekend(true).isChargedOnHoliday(false).build();
+
+        assertEquals(397, reference.calculateChargeDays(LocalDate.of(2024, 7, 1), 400, noHolidays));
+        assertEquals(2, reference.calculateChargeDays(LocalDate.of(2021, 7, 4), 3, noHolidays));
+        assertEquals(6, reference.calculateChargeDays(LocalDate.of(2021, 7, 1), 7, noHolidays));
+    }
+
+    @Test
+    void testCalendarHelperMatchesReferenceAcrossSeveralYears() {
+        LocalDate firstCheckoutDate = LocalDate.of(2019, 12, 1);
+        ChargeDayVerifier.Result result = new ChargeDayVerifier(CalendarHelper::calculateChargeDays)
+                .verify(firstCheckoutDate, 365 * 3, ChargeDayVerifier.rentalDays(20));
+
+        assertTrue(result.isSuccessful(), () -> "first divergence: " + result.getFirstDivergence());
+        assertNull(result.getFirstDivergence());
+        assertEquals(365L * 3 * (20 + ChargeDayVerifier.LONG_RENTAL_DAYS.length) * 8, result.getChecks());
+    }
+
+    @Test
+    void testReportsFirstDivergenceOfCandidateThatIgnoresHolidays() {
+        ChargeDayCalculator ignoresHolidays = (checkoutDate, rentalDays, charge) -> CalendarHelper.calculateChargeDays(
+                checkoutDate, rentalDays, Charge.builder()
+                        .isChargedOnWeekday(charge.isChargedOnWeekday())
+                        .isChargedOnWeekend(charge.isChargedOnWeekend())
+                        .isChargedOnHoliday(true)
+                        .build());
+
+        ChargeDayVerifier.Result result = new ChargeDayVerifier(ignoresHolidays)
+                .verify(LocalDate.of(2021, 1, 1), 365, new int[]{1, 2, 3});
+
+        assertFalse(result.isSuccessful());
+        ChargeDayVerifier.Divergence divergence = result.getFirstDivergence();
+        // Independence Day 2021 fell on a Sunday and was observed on Monday July 5th
+        assertEquals(LocalDate.of(2021, 7, 2), divergence.getCheckoutDate());
+        assertEquals(3, divergence.getRentalDays());
+        assertEquals(divergence.getExpected() + 1, Integer.parseInt(divergence.getActual()));
+    }
+}